@@ -0,0 +1,41 @@
+#!/bin/sh
+# Compares two JMH result files, such as target/jmh/jmh-result.json of two releases, and exits
+# non-zero if any benchmark got slower, or allocates more per operation, by more than the
+# threshold percentage.
+#
+#   src/jmh/compare-results.sh baseline.json current.json [threshold-percent]
+set -eu
+
+BASELINE=${1:?usage: $0 baseline.json current.json [threshold-percent]}
+CURRENT=${2:?usage: $0 baseline.json current.json [threshold-percent]}
+THRESHOLD=${3:-10}
+
+REPORT=$(jq -n -r --slurpfile baseline "$BASELINE" --slurpfile current "$CURRENT" \
+    --argjson threshold "$THRESHOLD" '
+  def key: .benchmark + (if .params then " " + (.params | to_entries
+      | map(.key + "=" + .value) | join(",")) else "" end) + " [" + .mode + "]";
+  def alloc: .secondaryMetrics["gc.alloc.rate.norm"].score // null;
+  def round1: if . == null then "-" else . * 10 | round / 10 | tostring end;
+  def change($old; $new): if $old == 0 then 0 else ($new - $old) / $old * 100 end;
+  # Positive means worse: lower throughput, or higher time per operation.
+  def regression($mode; $old; $new):
+    if $mode == "thrpt" then change($new; $old) else change($old; $new) end;
+  ($baseline[0] | map({key: key, value: .}) | from_entries) as $before
+  | [$current[0][] | key as $k | select($before[$k]) | {
+      name: $k,
+      unit: .primaryMetric.scoreUnit,
+      old: $before[$k].primaryMetric.score,
+      new: .primaryMetric.score,
+      speed: regression(.mode; $before[$k].primaryMetric.score; .primaryMetric.score),
+      oldAlloc: ($before[$k] | alloc),
+      newAlloc: alloc
+    } | .allocation = (if .oldAlloc != null and .newAlloc != null and .oldAlloc >= 1
+        then change(.oldAlloc; .newAlloc) else 0 end)
+      | .regressed = (.speed > $threshold or .allocation > $threshold)] as $rows
+  | ($rows[] | "\(if .regressed then "REGRESSED" else "ok       " end) \(.name): "
+      + "\(.old | round1) -> \(.new | round1) \(.unit) (\(.speed | round1)% slower), "
+      + "\(.oldAlloc | round1) -> \(.newAlloc | round1) B/op"),
+    (if any($rows[]; .regressed) then "FAILED: regressions beyond \($threshold)%" else "PASSED" end)
+')
+echo "$REPORT"
+[ "$(echo "$REPORT" | tail -n 1)" = PASSED ]
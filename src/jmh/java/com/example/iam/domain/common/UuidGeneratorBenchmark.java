@@ -0,0 +1,49 @@
+package com.example.iam.domain.common;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the cost of {@link UuidV7Generator} with {@link UUID#randomUUID()}, which draws its bits
+ * from {@code SecureRandom}. Run with
+ * {@code mvn -Pjmh verify -Djmh.includes=UuidGeneratorBenchmark}; the threaded variants show the
+ * contention on the shared counter.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UuidGeneratorBenchmark {
+
+  @Benchmark
+  public UUID randomV4() {
+    return UUID.randomUUID();
+  }
+
+  @Benchmark
+  public UUID timeOrderedV7() {
+    return UuidV7Generator.generate();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public UUID randomV4Threaded() {
+    return UUID.randomUUID();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public UUID timeOrderedV7Threaded() {
+    return UuidV7Generator.generate();
+  }
+}
@@ -0,0 +1,65 @@
+package com.example.iam.domain.user;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Measures {@link User#getAuthorities()}, which every authorization check calls, against mapping
+ * the roles to new authorities on each call. The shared authority lists of {@link RoleAuthorities}
+ * should show no allocation in the gc profiler. Run with
+ * {@code mvn -Pjmh verify -Djmh.includes=UserAuthoritiesBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserAuthoritiesBenchmark {
+
+  @Param({"USER", "ADMIN,USER"})
+  private String roles;
+
+  private User user;
+
+  @Setup
+  public void setUp() {
+    EnumSet<UserRole> granted = EnumSet.noneOf(UserRole.class);
+    for (String role : roles.split(",")) {
+      granted.add(UserRole.valueOf(role));
+    }
+    user = User.builder()
+        .email("bench@example.com")
+        .roles(granted)
+        .build();
+  }
+
+  @Benchmark
+  public Collection<? extends GrantedAuthority> getAuthorities() {
+    return user.getAuthorities();
+  }
+
+  @Benchmark
+  public List<GrantedAuthority> mappedPerCall() {
+    return user.getRoles().stream()
+        .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(
+            RoleAuthorities.ROLE_PREFIX + role.name()))
+        .toList();
+  }
+}
@@ -0,0 +1,88 @@
+package com.example.iam.security;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.iam.domain.user.User;
+import com.example.iam.domain.user.UserRole;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Measures signing and verifying access tokens with {@link JwtService}, with and without the
+ * principal claims of the stateless principal mode. Verification parses and checks the HS256
+ * signature on every call; the verified token cache is not involved. Run with
+ * {@code mvn -Pjmh verify -Djmh.includes=JwtServiceBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+  private static final String SECRET_KEY =
+      "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+  private static final long ACCESS_TOKEN_EXPIRATION = 3600;
+
+  private static final long REFRESH_TOKEN_EXPIRATION = 604800;
+
+  @Param({"false", "true"})
+  private boolean statelessPrincipal;
+
+  private JwtService jwtService;
+
+  private User user;
+
+  private String token;
+
+  @Setup
+  public void setUp() throws Exception {
+    SigningKeyRing keyRing = new SigningKeyRing(SECRET_KEY, "", "", Duration.ofMinutes(1), "");
+    jwtService = new JwtService(keyRing, new AuthenticationMetrics(new SimpleMeterRegistry()),
+        ACCESS_TOKEN_EXPIRATION, REFRESH_TOKEN_EXPIRATION, statelessPrincipal);
+    user = User.builder()
+        .email("bench@example.com")
+        .password("{noop}password")
+        .roles(Set.of(UserRole.USER))
+        .enabled(true)
+        .accountNonExpired(true)
+        .accountNonLocked(true)
+        .credentialsNonExpired(true)
+        .build();
+    user.setId(UUID.randomUUID());
+    user.setVersion(0L);
+    token = jwtService.generateAccessToken(user);
+  }
+
+  @Benchmark
+  public String generateAccessToken() {
+    return jwtService.generateAccessToken(user);
+  }
+
+  @Benchmark
+  public String extractUsername() {
+    return jwtService.extractUsername(token);
+  }
+
+  @Benchmark
+  public boolean isTokenValid() {
+    return jwtService.isTokenValid(token, user);
+  }
+}
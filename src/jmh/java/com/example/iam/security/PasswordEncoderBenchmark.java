@@ -0,0 +1,59 @@
+package com.example.iam.security;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Measures one password verification, which is what a login costs a hashing thread, for each
+ * supported algorithm at several costs. The configured defaults are {@code bcrypt:10},
+ * {@code argon2:19456} and {@code pbkdf2:600000}; the doubled costs show what raising them would
+ * do to login capacity. Run with {@code mvn -Pjmh verify -Djmh.includes=PasswordEncoderBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+  private static final String PASSWORD = "correct horse battery staple";
+
+  @Param({"bcrypt:10", "bcrypt:12", "argon2:19456", "argon2:65536", "pbkdf2:310000",
+      "pbkdf2:600000"})
+  private String encoder;
+
+  private PasswordEncoder passwordEncoder;
+
+  private String encodedPassword;
+
+  @Setup
+  public void setUp() {
+    String[] spec = encoder.split(":");
+    int cost = Integer.parseInt(spec[1]);
+    passwordEncoder = switch (spec[0]) {
+      case PasswordEncoders.BCRYPT -> PasswordEncoders.bcrypt(cost);
+      case PasswordEncoders.ARGON2 -> PasswordEncoders.argon2(cost, 2, 1);
+      case PasswordEncoders.PBKDF2 -> PasswordEncoders.pbkdf2(cost);
+      default -> throw new IllegalArgumentException("Unknown encoder: " + encoder);
+    };
+    encodedPassword = passwordEncoder.encode(PASSWORD);
+  }
+
+  @Benchmark
+  public boolean matches() {
+    return passwordEncoder.matches(PASSWORD, encodedPassword);
+  }
+}
@@ -0,0 +1,196 @@
+package com.example.iam.security;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.userdetails.MapReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.web.server.WebFilterChainProxy;
+import org.springframework.security.web.server.context.WebSessionServerSecurityContextRepository;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebHandler;
+import org.springframework.web.server.handler.DefaultWebFilterChain;
+import org.springframework.web.server.session.DefaultWebSessionManager;
+
+import com.example.iam.config.SecurityConfig;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * Compares one authenticated request through the former session-backed security chain with the
+ * stateless chain of {@link SecurityConfig}. Both use the same authentication manager against an
+ * in-memory user store, so the difference is the session lookup and the hand-written filter. Run
+ * with {@code mvn -Pjmh verify -Djmh.includes=SecurityFilterChainBenchmark}; the gc profiler
+ * reports the allocations per request.
+ *
+ * <p>Both chains find the token in the verified token cache. The uncached variant runs the stateless
+ * chain with a cache too small to keep any of the tokens it cycles through, so every request pays
+ * for signature verification and the user lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecurityFilterChainBenchmark {
+
+  private static final String SECRET_KEY =
+      "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+  private static final long ACCESS_TOKEN_EXPIRATION = 3600;
+
+  private static final long REFRESH_TOKEN_EXPIRATION = 604800;
+
+  private static final String PROTECTED_PATH = "/api/v1/users/me";
+
+  private static final int UNCACHED_TOKENS = 1024;
+
+  private final WebHandler handler = exchange -> exchange.getResponse().setComplete();
+
+  private final DefaultWebSessionManager sessionManager = new DefaultWebSessionManager();
+
+  private WebFilterChainProxy sessionChain;
+
+  private WebFilterChainProxy statelessChain;
+
+  private WebFilterChainProxy uncachedChain;
+
+  private String authorization;
+
+  private final String[] uncachedAuthorizations = new String[UNCACHED_TOKENS];
+
+  private int next;
+
+  @Setup
+  public void setUp() throws Exception {
+    SigningKeyRing keyRing = new SigningKeyRing(SECRET_KEY, "", "", Duration.ofMinutes(1), "");
+    AuthenticationMetrics metrics = new AuthenticationMetrics(new SimpleMeterRegistry());
+    JwtService jwtService = new JwtService(keyRing, metrics, ACCESS_TOKEN_EXPIRATION,
+        REFRESH_TOKEN_EXPIRATION, false);
+    UserDetails user = User.withUsername("bench@example.com")
+        .password("{noop}password")
+        .roles("USER")
+        .build();
+    // Never connected: the revocation filter is empty and no user changes, so nothing reaches Redis.
+    ReactiveStringRedisTemplate redis = new ReactiveStringRedisTemplate(
+        new LettuceConnectionFactory());
+    UserVersionRegistry versions = new UserVersionRegistry(redis, ACCESS_TOKEN_EXPIRATION,
+        Duration.ofMinutes(5), Duration.ofSeconds(30));
+    TokenRevocationService revocations = new TokenRevocationService(
+        redis, new SimpleMeterRegistry(), 1000, 0.001, Duration.ofMinutes(15),
+        Duration.ofSeconds(30));
+    JwtReactiveAuthenticationManager manager = new JwtReactiveAuthenticationManager(
+        jwtService,
+        new MapReactiveUserDetailsService(user),
+        versions,
+        new VerifiedTokenCache(versions, new SimpleMeterRegistry(), DataSize.ofMegabytes(1),
+            Duration.ofSeconds(30)),
+        revocations,
+        metrics);
+    BearerTokenServerAuthenticationConverter converter =
+        new BearerTokenServerAuthenticationConverter();
+
+    authorization = "Bearer " + jwtService.generateAccessToken(user);
+    statelessChain = new WebFilterChainProxy(new SecurityConfig(manager, converter)
+        .securityWebFilterChain(ServerHttpSecurity.http()));
+    for (int i = 0; i < UNCACHED_TOKENS; i++) {
+      uncachedAuthorizations[i] = "Bearer " + jwtService.generateAccessToken(user);
+    }
+    JwtReactiveAuthenticationManager uncachedManager = new JwtReactiveAuthenticationManager(
+        jwtService,
+        new MapReactiveUserDetailsService(user),
+        versions,
+        new VerifiedTokenCache(versions, new SimpleMeterRegistry(), DataSize.ofKilobytes(1),
+            Duration.ofSeconds(30)),
+        revocations,
+        metrics);
+    uncachedChain = new WebFilterChainProxy(new SecurityConfig(uncachedManager, converter)
+        .securityWebFilterChain(ServerHttpSecurity.http()));
+    sessionChain = new WebFilterChainProxy(ServerHttpSecurity.http()
+        .csrf(ServerHttpSecurity.CsrfSpec::disable)
+        .authorizeExchange(auth -> auth
+            .pathMatchers("/api/v1/auth/**", "/.well-known/jwks.json").permitAll()
+            .pathMatchers("/swagger-ui.html", "/swagger-ui/**", "/v3/api-docs/**", "/webjars/**",
+                "/api-docs/**").permitAll()
+            .anyExchange().authenticated())
+        .securityContextRepository(new WebSessionServerSecurityContextRepository())
+        .addFilterAt(sessionBearerFilter(manager, converter), SecurityWebFiltersOrder.AUTHENTICATION)
+        .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+        .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+        .build());
+  }
+
+  @Benchmark
+  public ServerWebExchange sessionBacked() {
+    MockServerWebExchange exchange = MockServerWebExchange.builder(request())
+        .sessionManager(sessionManager)
+        .build();
+    return run(sessionChain, exchange);
+  }
+
+  @Benchmark
+  public ServerWebExchange stateless() {
+    return run(statelessChain, MockServerWebExchange.from(request()));
+  }
+
+  @Benchmark
+  public ServerWebExchange statelessUncached() {
+    next = (next + 1) % UNCACHED_TOKENS;
+    return run(uncachedChain, MockServerWebExchange.from(request(uncachedAuthorizations[next])));
+  }
+
+  private MockServerHttpRequest request() {
+    return request(authorization);
+  }
+
+  private MockServerHttpRequest request(final String header) {
+    return MockServerHttpRequest.get(PROTECTED_PATH)
+        .header(HttpHeaders.AUTHORIZATION, header)
+        .build();
+  }
+
+  private ServerWebExchange run(final WebFilterChainProxy chain, final ServerWebExchange exchange) {
+    new DefaultWebFilterChain(handler, List.of(chain)).filter(exchange).block();
+    return exchange;
+  }
+
+  /**
+   * The bearer filter as it was written before the stateless chain: it authenticated inline and
+   * left the security context to the session repository.
+   */
+  private static WebFilter sessionBearerFilter(
+      final JwtReactiveAuthenticationManager manager,
+      final BearerTokenServerAuthenticationConverter converter) {
+    return (exchange, chain) -> converter.convert(exchange)
+        .flatMap(manager::authenticate)
+        .map(ReactiveSecurityContextHolder::withAuthentication)
+        .onErrorResume(e -> Mono.empty())
+        .defaultIfEmpty(Context.empty())
+        .flatMap(context -> chain.filter(exchange).contextWrite(context));
+  }
+}
@@ -0,0 +1,7 @@
+-- A sign-up: one new user with a random id and email, in the table of the search_path.
+INSERT INTO users (id, email, password, first_name, last_name, enabled, account_non_expired,
+                   account_non_locked, credentials_non_expired, date_created, last_updated,
+                   version, deleted)
+VALUES (gen_random_uuid(), gen_random_uuid() || '@bench.example.com',
+        '{bcrypt}$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3mBaYv6AlMjZ5GmVQ5jQq2a',
+        'First', 'Last', TRUE, TRUE, TRUE, TRUE, now(), now(), 0, FALSE);
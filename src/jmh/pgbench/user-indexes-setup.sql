@@ -0,0 +1,60 @@
+-- Builds two copies of the users table seeded with :rows users: bench_before with the indexes
+-- maintained up to V3, bench_after with the minimal set of V5.
+-- Run with: psql -v rows=1000000 -f user-indexes-setup.sql
+DROP SCHEMA IF EXISTS bench_before CASCADE;
+DROP SCHEMA IF EXISTS bench_after CASCADE;
+CREATE SCHEMA bench_before;
+CREATE SCHEMA bench_after;
+
+CREATE TABLE bench_before.users (
+    id UUID PRIMARY KEY,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    first_name VARCHAR(255) NOT NULL,
+    last_name VARCHAR(255) NOT NULL,
+    enabled BOOLEAN NOT NULL DEFAULT TRUE,
+    account_non_expired BOOLEAN NOT NULL DEFAULT TRUE,
+    account_non_locked BOOLEAN NOT NULL DEFAULT TRUE,
+    credentials_non_expired BOOLEAN NOT NULL DEFAULT TRUE,
+    date_created TIMESTAMP WITH TIME ZONE NOT NULL,
+    last_updated TIMESTAMP WITH TIME ZONE NOT NULL,
+    created_by VARCHAR(255),
+    last_modified_by VARCHAR(255),
+    version BIGINT NOT NULL DEFAULT 0,
+    deleted BOOLEAN NOT NULL DEFAULT FALSE
+);
+CREATE TABLE bench_after.users (LIKE bench_before.users INCLUDING DEFAULTS);
+
+INSERT INTO bench_before.users (id, email, password, first_name, last_name, date_created,
+                                last_updated, created_by, last_modified_by, deleted)
+SELECT md5('user' || n)::uuid,
+       'user' || n || '@bench.example.com',
+       '{bcrypt}$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3mBaYv6AlMjZ5GmVQ5jQq2a',
+       'First' || n,
+       'Last' || n,
+       timestamptz '2024-01-01 00:00:00+00' + n * interval '1 second',
+       timestamptz '2024-01-01 00:00:00+00' + n * interval '1 second',
+       'seed',
+       'seed',
+       n % 20 = 0
+FROM generate_series(1, :rows) AS n;
+INSERT INTO bench_after.users SELECT * FROM bench_before.users;
+
+CREATE INDEX idx_users_email ON bench_before.users (email);
+CREATE INDEX idx_users_deleted ON bench_before.users (deleted);
+CREATE INDEX idx_users_email_deleted ON bench_before.users (email, deleted);
+CREATE INDEX idx_users_date_created ON bench_before.users (date_created);
+CREATE INDEX idx_users_last_updated ON bench_before.users (last_updated);
+CREATE INDEX idx_users_created_by ON bench_before.users (created_by);
+CREATE INDEX idx_users_last_modified_by ON bench_before.users (last_modified_by);
+
+ALTER TABLE bench_after.users ADD PRIMARY KEY (id);
+CREATE UNIQUE INDEX uq_users_email_live ON bench_after.users (email) WHERE NOT deleted;
+
+CREATE INDEX idx_users_listing ON bench_before.users (deleted, date_created DESC, id DESC)
+    INCLUDE (email, first_name, last_name, enabled, account_non_expired, account_non_locked,
+             credentials_non_expired, last_updated);
+CREATE INDEX idx_users_listing_keyset ON bench_after.users (deleted, date_created DESC, id DESC);
+
+VACUUM ANALYZE bench_before.users;
+VACUUM ANALYZE bench_after.users;
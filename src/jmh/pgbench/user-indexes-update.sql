@@ -0,0 +1,8 @@
+-- An audited account change on a random seeded user, touching last_updated and last_modified_by.
+\set n random(1, :rows)
+UPDATE users
+SET account_non_locked = NOT account_non_locked,
+    last_updated = now(),
+    last_modified_by = 'bench',
+    version = version + 1
+WHERE id = md5('user' || :n)::uuid;
@@ -0,0 +1,26 @@
+#!/bin/sh
+# Compares write throughput on users with the indexes maintained up to V3 and with the minimal set
+# of V5. Connection settings come from the usual PG* environment variables; gen_random_uuid needs
+# PostgreSQL 13 or later. Usage: user-indexes.sh [rows] [seconds per run] [clients]
+set -e
+
+ROWS=${1:-1000000}
+DURATION=${2:-30}
+CLIENTS=${3:-8}
+DIR=$(dirname "$0")
+
+psql -q -v ON_ERROR_STOP=1 -v rows="$ROWS" -f "$DIR/user-indexes-setup.sql"
+
+printf '%-14s %-8s %-10s %-10s %s\n' schema workload tps size hot
+for WORKLOAD in insert update; do
+  for SCHEMA in bench_before bench_after; do
+    TPS=$(PGOPTIONS="-c search_path=$SCHEMA" pgbench -n -c "$CLIENTS" -j "$CLIENTS" \
+        -T "$DURATION" -D rows="$ROWS" -f "$DIR/user-indexes-$WORKLOAD.sql" \
+      | sed -n 's/^tps = \([0-9.]*\).*/\1/p')
+    SIZE=$(psql -Atc "SELECT pg_size_pretty(pg_indexes_size('$SCHEMA.users'))")
+    # Share of updates so far that were HOT, i.e. wrote no index entry.
+    HOT=$(psql -Atc "SELECT coalesce(round(100.0 * n_tup_hot_upd / nullif(n_tup_upd, 0)) || '%', '-')
+        FROM pg_stat_user_tables WHERE relid = '$SCHEMA.users'::regclass")
+    printf '%-14s %-8s %-10s %-10s %s\n' "$SCHEMA" "$WORKLOAD" "$TPS" "$SIZE" "$HOT"
+  done
+done
@@ -0,0 +1,14 @@
+-- One page of GET /api/v1/users at depth :page, as issued by UserRepositoryCustomImpl.findPage.
+-- The cursor is the (date_created, id) of the last user of page :page - 1; with the seeded data it
+-- is computed instead of read, so the lookup itself costs nothing.
+\set cursor_n :rows - (:page - 1) * :page_size + 1
+SELECT u.id, u.email, u.first_name, u.last_name, u.enabled, u.account_non_expired,
+       u.account_non_locked, u.credentials_non_expired, u.deleted, u.date_created,
+       u.last_updated,
+       ARRAY(SELECT r.role FROM user_roles r WHERE r.user_id = u.id ORDER BY r.role) AS roles
+FROM users u
+WHERE u.deleted = FALSE
+AND (u.date_created, u.id) < (timestamptz '2024-01-01 00:00:00+00' + :cursor_n * interval '1 second',
+                              '00000000-0000-0000-0000-000000000000'::uuid)
+ORDER BY u.date_created DESC, u.id DESC
+LIMIT :page_size + 1;
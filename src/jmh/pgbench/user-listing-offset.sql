@@ -0,0 +1,10 @@
+-- The same page fetched with OFFSET, as R2dbcRepository paging would, for comparison.
+SELECT u.id, u.email, u.first_name, u.last_name, u.enabled, u.account_non_expired,
+       u.account_non_locked, u.credentials_non_expired, u.deleted, u.date_created,
+       u.last_updated,
+       ARRAY(SELECT r.role FROM user_roles r WHERE r.user_id = u.id ORDER BY r.role) AS roles
+FROM users u
+WHERE u.deleted = FALSE
+ORDER BY u.date_created DESC, u.id DESC
+OFFSET (:page - 1) * :page_size
+LIMIT :page_size + 1;
@@ -0,0 +1,28 @@
+-- Seeds :rows users, one per second of creation time, a tenth of them admins and a twentieth
+-- soft deleted. Run with: psql -v rows=1000000 -f user-listing-seed.sql
+INSERT INTO users (id, email, password, first_name, last_name, enabled, account_non_expired,
+                   account_non_locked, credentials_non_expired, date_created, last_updated,
+                   version, deleted)
+SELECT md5('user' || n)::uuid,
+       'user' || n || '@bench.example.com',
+       '{bcrypt}$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3mBaYv6AlMjZ5GmVQ5jQq2a',
+       'First' || n,
+       'Last' || n,
+       n % 7 <> 0,
+       TRUE,
+       TRUE,
+       TRUE,
+       timestamptz '2024-01-01 00:00:00+00' + n * interval '1 second',
+       timestamptz '2024-01-01 00:00:00+00' + n * interval '1 second',
+       0,
+       n % 20 = 0
+FROM generate_series(1, :rows) AS n
+ON CONFLICT DO NOTHING;
+
+INSERT INTO user_roles (user_id, role)
+SELECT md5('user' || n)::uuid, CASE WHEN n % 10 = 0 THEN 'ADMIN' ELSE 'USER' END
+FROM generate_series(1, :rows) AS n
+ON CONFLICT DO NOTHING;
+
+VACUUM ANALYZE users;
+VACUUM ANALYZE user_roles;
@@ -0,0 +1,22 @@
+#!/bin/sh
+# Compares the latency of user listing pages fetched by keyset and by OFFSET at growing depths.
+# Connection settings come from the usual PG* environment variables; the database must hold the
+# application schema. Usage: user-listing.sh [rows] [seconds per run]
+set -e
+
+ROWS=${1:-1000000}
+DURATION=${2:-10}
+PAGE_SIZE=50
+DIR=$(dirname "$0")
+
+psql -q -v ON_ERROR_STOP=1 -v rows="$ROWS" -f "$DIR/user-listing-seed.sql"
+
+printf '%-8s %-8s %s\n' page mode latency
+for PAGE in 1 10 100 1000 10000; do
+  for MODE in keyset offset; do
+    LATENCY=$(pgbench -n -T "$DURATION" -f "$DIR/user-listing-$MODE.sql" \
+        -D rows="$ROWS" -D page="$PAGE" -D page_size="$PAGE_SIZE" \
+      | sed -n 's/^latency average = //p')
+    printf '%-8s %-8s %s\n' "$PAGE" "$MODE" "$LATENCY"
+  done
+done
@@ -0,0 +1,12 @@
+-- One registration-sized batch of :batch users keyed by the id function of the search_path schema.
+\set n random(1, 1000000000)
+INSERT INTO users (id, email, password, first_name, last_name, date_created, last_updated)
+SELECT next_id(),
+       'user' || :n || '.' || i || '.' || pg_backend_pid() || '@bench.example.com',
+       '{bcrypt}$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3mBaYv6AlMjZ5GmVQ5jQq2a',
+       'First',
+       'Last',
+       now(),
+       now()
+FROM generate_series(1, :batch) AS i
+ON CONFLICT (email) WHERE NOT deleted DO NOTHING;
@@ -0,0 +1,34 @@
+-- Creates two empty users tables keyed by UUID, bench_v4 filled with random ids and bench_v7 with
+-- time-ordered ones, and a uuid_v7() function laid out like UuidV7Generator without the counter.
+-- Run with: psql -f uuid-keys-setup.sql
+DROP SCHEMA IF EXISTS bench_v4 CASCADE;
+DROP SCHEMA IF EXISTS bench_v7 CASCADE;
+CREATE SCHEMA bench_v4;
+CREATE SCHEMA bench_v7;
+
+CREATE OR REPLACE FUNCTION bench_v7.uuid_v7() RETURNS UUID AS $$
+    SELECT encode(
+               set_bit(set_bit(
+                   overlay(uuid_send(gen_random_uuid())
+                           PLACING substring(int8send(floor(extract(EPOCH FROM clock_timestamp())
+                                                            * 1000)::BIGINT) FROM 3)
+                           FROM 1 FOR 6),
+                   52, 1), 53, 1),
+               'hex')::UUID
+$$ LANGUAGE SQL VOLATILE;
+
+CREATE FUNCTION bench_v4.next_id() RETURNS UUID AS 'SELECT gen_random_uuid()' LANGUAGE SQL VOLATILE;
+CREATE FUNCTION bench_v7.next_id() RETURNS UUID AS 'SELECT bench_v7.uuid_v7()' LANGUAGE SQL VOLATILE;
+
+CREATE TABLE bench_v4.users (
+    id UUID PRIMARY KEY,
+    email VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    first_name VARCHAR(255) NOT NULL,
+    last_name VARCHAR(255) NOT NULL,
+    date_created TIMESTAMP WITH TIME ZONE NOT NULL,
+    last_updated TIMESTAMP WITH TIME ZONE NOT NULL,
+    deleted BOOLEAN NOT NULL DEFAULT FALSE
+);
+CREATE UNIQUE INDEX ON bench_v4.users(email) WHERE NOT deleted;
+CREATE TABLE bench_v7.users (LIKE bench_v4.users INCLUDING ALL);
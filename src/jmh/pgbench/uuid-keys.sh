@@ -0,0 +1,35 @@
+#!/bin/sh
+# Compares inserting users keyed by random UUIDv4 and time-ordered UUIDv7 ids until each table holds
+# the target number of rows, then reports throughput, primary key size, the share of the primary
+# key held in shared buffers and the WAL written. Connection settings come from the usual PG*
+# environment variables; gen_random_uuid needs PostgreSQL 13 or later and the buffer share needs
+# the pg_buffercache extension. Usage: uuid-keys.sh [rows] [clients] [batch]
+set -e
+
+ROWS=${1:-10000000}
+CLIENTS=${2:-8}
+BATCH=${3:-100}
+DIR=$(dirname "$0")
+TRANSACTIONS=$((ROWS / CLIENTS / BATCH))
+
+psql -q -v ON_ERROR_STOP=1 -f "$DIR/uuid-keys-setup.sql"
+psql -q -c "CREATE EXTENSION IF NOT EXISTS pg_buffercache" || true
+
+printf '%-9s %-12s %-10s %-10s %-8s %s\n' schema rows rows/s pkey cached wal
+for SCHEMA in bench_v4 bench_v7; do
+  WAL_START=$(psql -Atc "SELECT pg_current_wal_lsn()")
+  TPS=$(PGOPTIONS="-c search_path=$SCHEMA,public" pgbench -n -c "$CLIENTS" -j "$CLIENTS" \
+      -t "$TRANSACTIONS" -D batch="$BATCH" -f "$DIR/uuid-keys-insert.sql" \
+    | sed -n 's/^tps = \([0-9.]*\).*/\1/p')
+  COUNT=$(psql -Atc "SELECT count(*) FROM $SCHEMA.users")
+  PKEY=$(psql -Atc "SELECT pg_size_pretty(pg_relation_size('$SCHEMA.users_pkey'))")
+  CACHED=$(psql -Atc "SELECT round(100.0 * count(*) * current_setting('block_size')::int
+                             / pg_relation_size('$SCHEMA.users_pkey'), 1) || '%'
+                      FROM pg_buffercache
+                      WHERE relfilenode = pg_relation_filenode('$SCHEMA.users_pkey')" 2>/dev/null \
+    || echo n/a)
+  WAL=$(psql -Atc "SELECT pg_size_pretty(pg_current_wal_lsn() - '$WAL_START'::pg_lsn)")
+  ROWS_PER_SECOND=$(awk "BEGIN { printf \"%d\", $TPS * $BATCH }")
+  printf '%-9s %-12s %-10s %-10s %-8s %s\n' "$SCHEMA" "$COUNT" "$ROWS_PER_SECOND" "$PKEY" \
+    "$CACHED" "$WAL"
+done
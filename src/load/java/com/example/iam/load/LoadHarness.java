@@ -0,0 +1,311 @@
+package com.example.iam.load;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.example.iam.IamServiceApplication;
+import com.example.iam.dto.AuthenticationResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Boots the whole service against {@link StandIns} and drives it with an
+ * {@link OpenLoadGenerator}, then reports throughput, latency percentiles and how busy the event
+ * loops and other thread pools were. Scenarios:
+ * <ul>
+ *   <li>{@code register}: signs up a new user per request</li>
+ *   <li>{@code authenticate}: logs in one of the seeded users</li>
+ *   <li>{@code authenticated}: calls a protected endpoint with a seeded user's access token</li>
+ * </ul>
+ *
+ * <p>Settings are system properties: {@code load.rates} (requests per second per scenario, such
+ * as {@code register=10,authenticate=20,authenticated=500}), {@code load.warm-up},
+ * {@code load.duration}, {@code load.users} (seeded users), {@code load.client-threads} and
+ * {@code load.report} (JSON result file). Program arguments go to the service, so
+ * {@code --application.security.password.bcrypt.strength=12} tries another cost.
+ */
+public final class LoadHarness {
+
+  /**
+   * Password of every generated user.
+   */
+  private static final String PASSWORD = "load-test-password";
+
+  /**
+   * Protected endpoint of the {@code authenticated} scenario.
+   */
+  private static final String PROTECTED_PATH = "/api/v1/health";
+
+  /**
+   * Registrations sent at once while seeding users.
+   */
+  private static final int SEED_CONCURRENCY = 8;
+
+  /**
+   * Connections the generator may open to the service.
+   */
+  private static final int MAX_CONNECTIONS = 2048;
+
+  /**
+   * Nanoseconds in a millisecond, for the report.
+   */
+  private static final double NANOS_PER_MILLI = 1e6;
+
+  /**
+   * Nanoseconds in a second, for the report.
+   */
+  private static final double NANOS_PER_SECOND = 1e9;
+
+  /**
+   * Percent in one.
+   */
+  private static final double PERCENT = 100;
+
+  /**
+   * Thread name prefixes of the monitored pools, by report label.
+   */
+  private static final Map<String, String> THREAD_GROUPS = threadGroups();
+
+  private LoadHarness() {
+  }
+
+  /**
+   * Runs the harness.
+   *
+   * @param args arguments passed on to the service
+   * @throws Exception if the stand-ins, the service or the run fail
+   */
+  public static void main(final String[] args) throws Exception {
+    Map<String, Double> rates = rates(System.getProperty("load.rates",
+        "register=10,authenticate=20,authenticated=500"));
+    Duration warmUp = DurationStyle.detectAndParse(System.getProperty("load.warm-up", "10s"));
+    Duration duration = DurationStyle.detectAndParse(System.getProperty("load.duration", "30s"));
+    int users = Integer.getInteger("load.users", 200);
+    int clientThreads = Integer.getInteger("load.client-threads", 2);
+    Path report = Path.of(System.getProperty("load.report", "target/load/load-result.json"));
+
+    int exitCode = 0;
+    LoopResources loops = LoopResources.create("load-client", clientThreads, true);
+    ConnectionProvider connections = ConnectionProvider.builder("load")
+        .maxConnections(MAX_CONNECTIONS)
+        .pendingAcquireMaxCount(-1)
+        .build();
+    try (StandIns standIns = StandIns.start();
+         ConfigurableApplicationContext service = new SpringApplicationBuilder(
+             IamServiceApplication.class)
+             // rejected requests are counted in the report rather than logged one by one
+             .properties("server.port=0", "logging.level.root=WARN",
+                 "logging.level.com.example.iam.exception=ERROR")
+             .run(serviceArguments(standIns, args))) {
+      int port = ((WebServerApplicationContext) service).getWebServer().getPort();
+      WebClient client = WebClient.builder()
+          .baseUrl("http://localhost:" + port)
+          .clientConnector(new ReactorClientHttpConnector(
+              HttpClient.create(connections).runOn(loops)))
+          .build();
+
+      System.out.printf("Seeding %d users...%n", users);
+      List<String> tokens = seed(client, users);
+      List<Scenario> scenarios = scenarios(client, rates, tokens);
+      System.out.printf("Sending %s for %s of warm-up and %s of measurement...%n",
+          rates, warmUp, duration);
+      List<ThreadCpuMonitor.Usage> usage = new OpenLoadGenerator(scenarios,
+          new ThreadCpuMonitor(THREAD_GROUPS)).run(warmUp, duration);
+      Map<String, Object> result = report(scenarios, usage, duration);
+      Files.createDirectories(report.toAbsolutePath().getParent());
+      new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+          .writeValue(report.toFile(), result);
+      System.out.printf("Results written to %s%n", report);
+    } catch (IOException | RuntimeException e) {
+      e.printStackTrace();
+      exitCode = 1;
+    } finally {
+      connections.dispose();
+      loops.dispose();
+    }
+    // The stand-ins and Reactor leave non-daemon threads behind.
+    System.exit(exitCode);
+  }
+
+  private static String[] serviceArguments(final StandIns standIns, final String[] args) {
+    List<String> arguments = new ArrayList<>(standIns.arguments());
+    for (String arg : args) {
+      if (StringUtils.hasText(arg)) {
+        arguments.add(arg);
+      }
+    }
+    return arguments.toArray(String[]::new);
+  }
+
+  private static Map<String, Double> rates(final String value) {
+    Map<String, Double> rates = new LinkedHashMap<>();
+    for (String entry : StringUtils.commaDelimitedListToStringArray(value)) {
+      String[] pair = entry.trim().split("=");
+      double rate = Double.parseDouble(pair[1].trim());
+      if (rate > 0) {
+        rates.put(pair[0].trim(), rate);
+      }
+    }
+    return rates;
+  }
+
+  /**
+   * Registers the users the {@code authenticate} and {@code authenticated} scenarios use.
+   *
+   * @param client the client of the service
+   * @param users  the number of users
+   * @return the access tokens of the users, in registration order
+   */
+  private static List<String> seed(final WebClient client, final int users) {
+    return Flux.range(0, users)
+        .flatMapSequential(i -> client.post()
+            .uri("/api/v1/auth/register")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(registration(seedEmail(i)))
+            .retrieve()
+            .bodyToMono(AuthenticationResponse.class)
+            .map(AuthenticationResponse::accessToken), SEED_CONCURRENCY)
+        .collectList()
+        .block();
+  }
+
+  private static List<Scenario> scenarios(
+      final WebClient client,
+      final Map<String, Double> rates,
+      final List<String> tokens) {
+    AtomicLong registrations = new AtomicLong();
+    List<Scenario> scenarios = new ArrayList<>();
+    rates.forEach((name, rate) -> scenarios.add(switch (name) {
+      case "register" -> new Scenario(name, rate, sequence -> status(client.post()
+          .uri("/api/v1/auth/register")
+          .contentType(MediaType.APPLICATION_JSON)
+          .bodyValue(registration("load-" + registrations.incrementAndGet() + "@example.com"))));
+      case "authenticate" -> new Scenario(name, rate, sequence -> status(client.post()
+          .uri("/api/v1/auth/authenticate")
+          .contentType(MediaType.APPLICATION_JSON)
+          .bodyValue(credentials(seedEmail((int) (sequence % tokens.size()))))));
+      case "authenticated" -> new Scenario(name, rate, sequence -> status(client.get()
+          .uri(PROTECTED_PATH)
+          .header(HttpHeaders.AUTHORIZATION,
+              "Bearer " + tokens.get((int) (sequence % tokens.size())))));
+      default -> throw new IllegalArgumentException("Unknown scenario: " + name);
+    }));
+    return scenarios;
+  }
+
+  private static Mono<Integer> status(final WebClient.RequestHeadersSpec<?> request) {
+    return request.exchangeToMono(response -> response.releaseBody()
+        .thenReturn(statusOf(response)));
+  }
+
+  private static int statusOf(final ClientResponse response) {
+    return response.statusCode().value();
+  }
+
+  private static String seedEmail(final int index) {
+    return "user-" + index + "@example.com";
+  }
+
+  private static String registration(final String email) {
+    return "{\"email\":\"" + email + "\",\"password\":\"" + PASSWORD
+        + "\",\"firstName\":\"Load\",\"lastName\":\"Test\"}";
+  }
+
+  private static String credentials(final String email) {
+    return "{\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}";
+  }
+
+  /**
+   * Prints the results and returns them for the JSON file.
+   *
+   * @param scenarios the scenarios sent
+   * @param usage     the usage of the monitored threads
+   * @param duration  the measurement window
+   * @return the results
+   */
+  private static Map<String, Object> report(
+      final List<Scenario> scenarios,
+      final List<ThreadCpuMonitor.Usage> usage,
+      final Duration duration) {
+    double seconds = duration.toNanos() / NANOS_PER_SECOND;
+    Map<String, Object> result = new LinkedHashMap<>();
+    List<Map<String, Object>> scenarioResults = new ArrayList<>();
+    System.out.printf("%n%-14s %9s %8s %8s %10s %9s %9s %9s %9s%n", "scenario", "target/s",
+        "sent", "ok", "ok/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+    for (Scenario scenario : scenarios) {
+      Histogram latencies = scenario.latencies();
+      Map<String, Object> row = new LinkedHashMap<>();
+      row.put("scenario", scenario.name());
+      row.put("targetRate", scenario.rate());
+      row.put("sent", scenario.sent());
+      row.put("succeeded", scenario.succeeded());
+      row.put("throughput", scenario.succeeded() / seconds);
+      row.put("p50Millis", millis(latencies.getValueAtPercentile(50)));
+      row.put("p99Millis", millis(latencies.getValueAtPercentile(99)));
+      row.put("p999Millis", millis(latencies.getValueAtPercentile(99.9)));
+      row.put("maxMillis", millis(latencies.getMaxValue()));
+      row.put("failures", scenario.failures());
+      scenarioResults.add(row);
+      System.out.printf(Locale.ROOT, "%-14s %9.1f %8d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+          scenario.name(), scenario.rate(), scenario.sent(), scenario.succeeded(),
+          row.get("throughput"), row.get("p50Millis"), row.get("p99Millis"),
+          row.get("p999Millis"), row.get("maxMillis"));
+      if (!scenario.failures().isEmpty()) {
+        System.out.printf("%-14s failures: %s%n", "", scenario.failures());
+      }
+    }
+    result.put("durationSeconds", seconds);
+    result.put("scenarios", scenarioResults);
+
+    List<Map<String, Object>> threadResults = new ArrayList<>();
+    System.out.printf("%n%-20s %8s %10s %10s%n", "threads", "count", "mean busy", "max busy");
+    for (ThreadCpuMonitor.Usage group : usage) {
+      threadResults.add(Map.of("group", group.label(), "threads", group.threads(),
+          "meanUtilisation", group.mean(), "maxUtilisation", group.max()));
+      System.out.printf(Locale.ROOT, "%-20s %8d %9.1f%% %9.1f%%%n", group.label(),
+          group.threads(), group.mean() * PERCENT, group.max() * PERCENT);
+    }
+    result.put("threads", threadResults);
+    return result;
+  }
+
+  private static double millis(final long nanos) {
+    return nanos / NANOS_PER_MILLI;
+  }
+
+  private static Map<String, String> threadGroups() {
+    Map<String, String> groups = new LinkedHashMap<>();
+    groups.put("server event loops", "reactor-http-");
+    groups.put("password hashing", "password-hash-");
+    groups.put("database client", "reactor-tcp-");
+    groups.put("redis client", "lettuce-");
+    groups.put("load generator", "load-client-");
+    return groups;
+  }
+}
@@ -0,0 +1,150 @@
+package com.example.iam.load;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Open-model load generator: each scenario's requests are sent on a fixed schedule, whether or
+ * not earlier requests have been answered, as independent clients would. A closed loop of virtual
+ * users would instead slow down with the server and under-report its latency.
+ *
+ * <p>A ticker thread wakes every millisecond and sends the requests that fell due since its last
+ * run. Only requests due within the measurement window, after the warm-up, are recorded.
+ */
+final class OpenLoadGenerator {
+
+  /**
+   * Period of the ticker.
+   */
+  private static final long TICK_MICROS = 1000;
+
+  /**
+   * Nanoseconds in a second.
+   */
+  private static final double NANOS_PER_SECOND = 1e9;
+
+  /**
+   * How long a response may take before the request counts as timed out.
+   */
+  private static final Duration RESPONSE_TIMEOUT = Duration.ofSeconds(30);
+
+  /**
+   * Delay between two checks for requests still in flight.
+   */
+  private static final long DRAIN_POLL_MILLIS = 10;
+
+  /**
+   * Requests in flight beyond which new ones are dropped, protecting the generator's heap when
+   * the service falls far behind.
+   */
+  private static final long MAX_IN_FLIGHT = 50_000;
+
+  /**
+   * Scenarios sent concurrently.
+   */
+  private final List<Scenario> scenarios;
+
+  /**
+   * Monitor of the threads' CPU use during the measurement window.
+   */
+  private final ThreadCpuMonitor monitor;
+
+  /**
+   * Requests sent and not yet answered.
+   */
+  private final AtomicLong inFlight = new AtomicLong();
+
+  /**
+   * Creates the generator.
+   *
+   * @param scenarios the scenarios, each sent at its own rate
+   * @param monitor   the monitor started with the measurement window
+   */
+  OpenLoadGenerator(final List<Scenario> scenarios, final ThreadCpuMonitor monitor) {
+    this.scenarios = scenarios;
+    this.monitor = monitor;
+  }
+
+  /**
+   * Sends the scenarios for the warm-up and the measurement window, then waits for the requests
+   * still in flight.
+   *
+   * @param warmUp   how long requests are sent before recording starts
+   * @param duration the measurement window
+   * @return the usage of the monitored threads over the measurement window
+   * @throws InterruptedException if interrupted while waiting
+   */
+  List<ThreadCpuMonitor.Usage> run(final Duration warmUp, final Duration duration)
+      throws InterruptedException {
+    long start = System.nanoTime();
+    long measureStart = start + warmUp.toNanos();
+    long end = measureStart + duration.toNanos();
+    long[] sent = new long[scenarios.size()];
+    ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(
+        runnable -> new Thread(runnable, "load-ticker"));
+    try {
+      ticker.schedule(() -> {
+        monitor.begin();
+        scenarios.forEach(Scenario::latencies);
+      }, measureStart - System.nanoTime(), TimeUnit.NANOSECONDS);
+      ticker.scheduleAtFixedRate(() -> {
+        long until = Math.min(System.nanoTime(), end);
+        for (int i = 0; i < sent.length; i++) {
+          Scenario scenario = scenarios.get(i);
+          double interval = NANOS_PER_SECOND / scenario.rate();
+          long due = (long) ((until - start) / interval);
+          for (; sent[i] < due; sent[i]++) {
+            long intended = start + (long) (sent[i] * interval);
+            send(scenario, sent[i], intended, intended >= measureStart);
+          }
+        }
+      }, 0, TICK_MICROS, TimeUnit.MICROSECONDS);
+      TimeUnit.NANOSECONDS.sleep(end - System.nanoTime());
+    } finally {
+      ticker.shutdownNow();
+    }
+    List<ThreadCpuMonitor.Usage> usage = monitor.end();
+    long drainDeadline = System.nanoTime() + RESPONSE_TIMEOUT.toNanos();
+    while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+      TimeUnit.MILLISECONDS.sleep(DRAIN_POLL_MILLIS);
+    }
+    return usage;
+  }
+
+  private void send(
+      final Scenario scenario,
+      final long sequence,
+      final long intendedNanos,
+      final boolean measured) {
+    if (measured) {
+      scenario.recordSent();
+    }
+    if (inFlight.incrementAndGet() > MAX_IN_FLIGHT) {
+      inFlight.decrementAndGet();
+      if (measured) {
+        scenario.recordFailure("dropped by generator");
+      }
+      return;
+    }
+    scenario.request(sequence)
+        .timeout(RESPONSE_TIMEOUT)
+        .doFinally(signal -> inFlight.decrementAndGet())
+        .subscribe(
+            status -> {
+              if (measured) {
+                scenario.recordResponse(status, System.nanoTime() - intendedNanos);
+              }
+            },
+            error -> {
+              if (measured) {
+                scenario.recordFailure(error instanceof TimeoutException
+                    ? "timeout" : error.getClass().getSimpleName());
+              }
+            });
+  }
+}
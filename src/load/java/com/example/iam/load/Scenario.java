@@ -0,0 +1,130 @@
+package com.example.iam.load;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongFunction;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Kind of request sent at a fixed rate, with the results of the requests sent during the
+ * measurement window. Latency is taken from the time a request was due, not the time it was
+ * sent, so a slow server cannot hide its queueing by slowing the generator down.
+ */
+final class Scenario {
+
+  /**
+   * Longest latency the histogram records; slower responses are recorded at this value.
+   */
+  private static final long HIGHEST_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+  /**
+   * Significant digits kept by the histogram.
+   */
+  private static final int SIGNIFICANT_DIGITS = 3;
+
+  /**
+   * Name used in the report.
+   */
+  private final String name;
+
+  /**
+   * Requests per second.
+   */
+  private final double rate;
+
+  /**
+   * Sends the request of a given sequence number and emits the response status.
+   */
+  private final LongFunction<Mono<Integer>> request;
+
+  /**
+   * Latencies of successful requests, in nanoseconds.
+   */
+  private final Recorder latencies = new Recorder(HIGHEST_LATENCY_NANOS, SIGNIFICANT_DIGITS);
+
+  /**
+   * Requests sent.
+   */
+  private final LongAdder sent = new LongAdder();
+
+  /**
+   * Requests answered with a 2xx status.
+   */
+  private final LongAdder succeeded = new LongAdder();
+
+  /**
+   * Failed requests by cause: a status code or an exception.
+   */
+  private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a scenario.
+   *
+   * @param name    the name used in the report
+   * @param rate    the requests per second
+   * @param request sends the request of a sequence number and emits the response status
+   */
+  Scenario(final String name, final double rate, final LongFunction<Mono<Integer>> request) {
+    this.name = name;
+    this.rate = rate;
+    this.request = request;
+  }
+
+  String name() {
+    return name;
+  }
+
+  double rate() {
+    return rate;
+  }
+
+  Mono<Integer> request(final long sequence) {
+    return request.apply(sequence);
+  }
+
+  void recordSent() {
+    sent.increment();
+  }
+
+  void recordResponse(final int status, final long latencyNanos) {
+    if (status >= 200 && status < 300) {
+      succeeded.increment();
+      latencies.recordValue(Math.min(latencyNanos, HIGHEST_LATENCY_NANOS));
+    } else {
+      recordFailure("HTTP " + status);
+    }
+  }
+
+  void recordFailure(final String cause) {
+    failures.computeIfAbsent(cause, key -> new LongAdder()).increment();
+  }
+
+  long sent() {
+    return sent.sum();
+  }
+
+  long succeeded() {
+    return succeeded.sum();
+  }
+
+  Map<String, Long> failures() {
+    Map<String, Long> counts = new ConcurrentHashMap<>();
+    failures.forEach((cause, count) -> counts.put(cause, count.sum()));
+    return counts;
+  }
+
+  /**
+   * Returns the latencies recorded since the previous call.
+   *
+   * @return the latencies of successful requests, in nanoseconds
+   */
+  Histogram latencies() {
+    return latencies.getIntervalHistogram();
+  }
+}
@@ -0,0 +1,123 @@
+package com.example.iam.load;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.example.iam.IamServiceApplication;
+
+/**
+ * Boots the service on a database created with the original schema, whose {@code users} table
+ * still has a full UNIQUE constraint on {@code email}, and checks that the email of a
+ * soft-deleted user can be registered again. This only works once {@code schema.sql} has replaced
+ * the constraint with the partial unique index that {@code ON CONFLICT (email) WHERE NOT deleted}
+ * expects. Exits with status 1 if the check fails.
+ */
+public final class SchemaUpgradeCheck {
+
+  /**
+   * The {@code users} table and indexes as the first release created them.
+   */
+  private static final String ORIGINAL_SCHEMA = """
+      CREATE TABLE users (
+          id UUID PRIMARY KEY,
+          email VARCHAR(255) NOT NULL UNIQUE,
+          password VARCHAR(255) NOT NULL,
+          first_name VARCHAR(255) NOT NULL,
+          last_name VARCHAR(255) NOT NULL,
+          enabled BOOLEAN NOT NULL DEFAULT TRUE,
+          account_non_expired BOOLEAN NOT NULL DEFAULT TRUE,
+          account_non_locked BOOLEAN NOT NULL DEFAULT TRUE,
+          credentials_non_expired BOOLEAN NOT NULL DEFAULT TRUE,
+          date_created TIMESTAMP WITH TIME ZONE NOT NULL,
+          last_updated TIMESTAMP WITH TIME ZONE NOT NULL,
+          created_by VARCHAR(255),
+          last_modified_by VARCHAR(255),
+          version BIGINT NOT NULL DEFAULT 0,
+          deleted BOOLEAN NOT NULL DEFAULT FALSE);
+      CREATE INDEX idx_users_email ON users(email);
+      CREATE INDEX idx_users_deleted ON users(deleted);
+      CREATE INDEX idx_users_email_deleted ON users(email, deleted);
+      CREATE INDEX idx_users_date_created ON users(date_created);
+      CREATE INDEX idx_users_last_updated ON users(last_updated);
+      CREATE INDEX idx_users_created_by ON users(created_by);
+      CREATE INDEX idx_users_last_modified_by ON users(last_modified_by);
+      """;
+
+  /**
+   * Email registered, soft-deleted and registered again.
+   */
+  private static final String EMAIL = "returning@example.com";
+
+  private SchemaUpgradeCheck() {
+  }
+
+  /**
+   * Runs the check.
+   *
+   * @param args arguments passed on to the service
+   * @throws Exception if the stand-ins or the service fail to start
+   */
+  public static void main(final String[] args) throws Exception {
+    int exitCode = 1;
+    try (StandIns standIns = StandIns.start()) {
+      try (Connection connection = standIns.database().getConnection();
+           Statement statement = connection.createStatement()) {
+        statement.execute(ORIGINAL_SCHEMA);
+      }
+      try (ConfigurableApplicationContext service = new SpringApplicationBuilder(
+          IamServiceApplication.class)
+          .properties("server.port=0", "logging.level.root=WARN")
+          .run(standIns.arguments().toArray(String[]::new))) {
+        WebClient client = WebClient.create("http://localhost:"
+            + ((WebServerApplicationContext) service).getWebServer().getPort());
+        int first = register(client);
+        softDelete(standIns);
+        int second = register(client);
+        System.out.printf("Registered %s: HTTP %d; after soft delete: HTTP %d%n",
+            EMAIL, first, second);
+        if (isSuccess(first) && isSuccess(second)) {
+          exitCode = 0;
+        } else {
+          System.out.println("Schema upgrade check failed: a soft-deleted email cannot be reused");
+        }
+      }
+    } catch (IOException | SQLException | RuntimeException e) {
+      e.printStackTrace();
+    }
+    // The stand-ins and Reactor leave non-daemon threads behind.
+    System.exit(exitCode);
+  }
+
+  private static int register(final WebClient client) {
+    return client.post()
+        .uri("/api/v1/auth/register")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue("{\"email\":\"" + EMAIL + "\",\"password\":\"schema-check-password\","
+            + "\"firstName\":\"Schema\",\"lastName\":\"Check\"}")
+        .exchangeToMono(response -> response.releaseBody()
+            .thenReturn(response.statusCode().value()))
+        .block();
+  }
+
+  private static void softDelete(final StandIns standIns) throws SQLException {
+    try (Connection connection = standIns.database().getConnection();
+         PreparedStatement statement = connection.prepareStatement(
+             "UPDATE users SET deleted = TRUE WHERE email = ?")) {
+      statement.setString(1, EMAIL);
+      statement.executeUpdate();
+    }
+  }
+
+  private static boolean isSuccess(final int status) {
+    return status >= 200 && status < 300;
+  }
+}
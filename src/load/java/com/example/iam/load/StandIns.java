@@ -0,0 +1,88 @@
+package com.example.iam.load;
+
+import java.io.IOException;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import com.github.fppt.jedismock.RedisServer;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Local replacements for the service's backends: a PostgreSQL server started from binaries shipped
+ * as a Maven artifact, so the schema and its PostgreSQL-specific queries run unchanged, and an
+ * in-process server speaking the Redis protocol. Neither needs Docker or a network service.
+ */
+final class StandIns implements AutoCloseable {
+
+  /**
+   * Superuser of the embedded database, which trusts local connections.
+   */
+  private static final String DATABASE_USER = "postgres";
+
+  /**
+   * Embedded PostgreSQL server.
+   */
+  private final EmbeddedPostgres postgres;
+
+  /**
+   * In-process Redis server.
+   */
+  private final RedisServer redis;
+
+  private StandIns(final EmbeddedPostgres postgres, final RedisServer redis) {
+    this.postgres = postgres;
+    this.redis = redis;
+  }
+
+  /**
+   * Starts both servers on free ports.
+   *
+   * @return the running stand-ins
+   * @throws IOException if a server cannot be started
+   */
+  static StandIns start() throws IOException {
+    EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+    try {
+      return new StandIns(postgres, RedisServer.newRedisServer().start());
+    } catch (IOException | RuntimeException e) {
+      postgres.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Returns the command line arguments pointing the service at the stand-ins. Command line
+   * arguments take precedence over {@code application.yml}.
+   *
+   * @return the arguments
+   */
+  List<String> arguments() {
+    return List.of(
+        "--spring.r2dbc.url=r2dbc:postgresql://localhost:" + postgres.getPort() + "/postgres",
+        "--spring.r2dbc.username=" + DATABASE_USER,
+        "--spring.r2dbc.password=" + DATABASE_USER,
+        "--spring.data.redis.host=localhost",
+        "--spring.data.redis.port=" + redis.getBindPort());
+  }
+
+  /**
+   * Returns a JDBC data source of the embedded database, for preparing or inspecting it outside
+   * the service.
+   *
+   * @return the data source
+   */
+  DataSource database() {
+    return postgres.getPostgresDatabase();
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      redis.stop();
+    } finally {
+      postgres.close();
+    }
+  }
+}
@@ -0,0 +1,120 @@
+package com.example.iam.load;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures how busy groups of threads were over a window, as the CPU time each thread used divided
+ * by the window's wall-clock time. For event loops this is their utilisation: a loop close to 100%
+ * queues work behind the request it is running.
+ */
+final class ThreadCpuMonitor {
+
+  /**
+   * Thread name prefixes by group label.
+   */
+  private final Map<String, String> groups;
+
+  /**
+   * Source of per-thread CPU times.
+   */
+  private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+  /**
+   * CPU time of each thread at the start of the window, by thread id.
+   */
+  private Map<Long, Long> baseline = Map.of();
+
+  /**
+   * Start of the window.
+   */
+  private long startNanos;
+
+  /**
+   * Creates the monitor.
+   *
+   * @param groups the thread name prefixes by group label, in report order
+   */
+  ThreadCpuMonitor(final Map<String, String> groups) {
+    this.groups = new LinkedHashMap<>(groups);
+    if (threads.isThreadCpuTimeSupported()) {
+      threads.setThreadCpuTimeEnabled(true);
+    }
+  }
+
+  /**
+   * Starts the window.
+   */
+  void begin() {
+    baseline = cpuTimes();
+    startNanos = System.nanoTime();
+  }
+
+  /**
+   * Ends the window. Threads started during the window count from zero.
+   *
+   * @return the usage of each group, in report order
+   */
+  List<Usage> end() {
+    double wallNanos = System.nanoTime() - startNanos;
+    Map<Long, Long> now = cpuTimes();
+    Map<Long, String> names = names();
+    List<Usage> usages = new ArrayList<>();
+    groups.forEach((label, prefix) -> {
+      int count = 0;
+      double total = 0;
+      double max = 0;
+      for (Map.Entry<Long, Long> thread : now.entrySet()) {
+        String name = names.get(thread.getKey());
+        if (name == null || !name.startsWith(prefix)) {
+          continue;
+        }
+        double busy = (thread.getValue() - baseline.getOrDefault(thread.getKey(), 0L)) / wallNanos;
+        count++;
+        total += busy;
+        max = Math.max(max, busy);
+      }
+      usages.add(new Usage(label, count, count > 0 ? total / count : 0, max));
+    });
+    return usages;
+  }
+
+  private Map<Long, Long> cpuTimes() {
+    Map<Long, Long> times = new HashMap<>();
+    if (!threads.isThreadCpuTimeSupported()) {
+      return times;
+    }
+    for (long id : threads.getAllThreadIds()) {
+      long time = threads.getThreadCpuTime(id);
+      if (time >= 0) {
+        times.put(id, time);
+      }
+    }
+    return times;
+  }
+
+  private static Map<Long, String> names() {
+    Map<Long, String> names = new HashMap<>();
+    for (Thread thread : Thread.getAllStackTraces().keySet()) {
+      names.put(thread.threadId(), thread.getName());
+    }
+    return names;
+  }
+
+  /**
+   * Usage of a thread group over the window.
+   *
+   * @param label   the group label
+   * @param threads the number of threads in the group
+   * @param mean    the mean share of the window the threads were running, from 0 to 1
+   * @param max     the share of the busiest thread
+   */
+  record Usage(String label, int threads, double mean, double max) {
+
+  }
+}
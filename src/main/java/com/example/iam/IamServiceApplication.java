@@ -3,7 +3,6 @@ package com.example.iam;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.data.r2dbc.config.EnableR2dbcAuditing;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
@@ -16,7 +15,6 @@ import io.swagger.v3.oas.annotations.info.License;
  * caching, security, and transaction management.
  */
 @SpringBootApplication
-@EnableR2dbcAuditing
 @EnableWebFluxSecurity
 @EnableTransactionManagement
 @EnableCaching
@@ -28,12 +26,13 @@ import io.swagger.v3.oas.annotations.info.License;
         license = @License(name = "Apache 2.0", url = "https://www.apache.org/licenses/LICENSE-2.0")
     )
 )
-public final class IamServiceApplication {
+public class IamServiceApplication {
 
   /**
-   * Private constructor to prevent instantiation.
+   * Protected constructor: Spring subclasses the application class to proxy its configuration,
+   * so it can be neither final nor privately constructed.
    */
-  private IamServiceApplication() {
+  protected IamServiceApplication() {
   }
 
   /**
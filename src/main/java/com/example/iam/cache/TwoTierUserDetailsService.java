@@ -0,0 +1,358 @@
+package com.example.iam.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.connection.ReactiveSubscription;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import com.example.iam.domain.user.User;
+import com.example.iam.repository.UserRepository;
+import com.example.iam.routing.RecentWrites;
+import com.example.iam.security.UserVersionRegistry;
+import com.github.benmanes.caffeine.cache.Cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * User details service resolving principals through a bounded in-process cache (L1) in front of
+ * the shared Redis {@code users} cache (L2), falling back to the database. Cached users carry no
+ * password, so this service is only used to resolve principals of already authenticated tokens.
+ * Changes to a user are broadcast over Redis so that every node drops its L1 entry.
+ *
+ * <p>Redis is accessed without blocking. Multi-key reads use a single MGET, and the commands of a
+ * batch write or invalidation are issued together on the shared connection, so a batch costs one
+ * round trip.
+ */
+@Slf4j
+@Primary
+@Service
+public final class TwoTierUserDetailsService implements ReactiveUserDetailsService {
+
+  /**
+   * Name of the cache, used for the Redis key prefix and for metrics.
+   */
+  public static final String CACHE_NAME = "users";
+
+  /**
+   * Redis channel on which user invalidations are broadcast.
+   */
+  public static final String INVALIDATION_CHANNEL = "iam:users:invalidation";
+
+  /**
+   * Prefix of the Redis keys holding shared entries.
+   */
+  private static final String KEY_PREFIX = CACHE_NAME + "::";
+
+  /**
+   * First delay before resubscribing to the invalidation channel.
+   */
+  private static final Duration RESUBSCRIBE_MIN_BACKOFF = Duration.ofSeconds(1);
+
+  /**
+   * Longest delay between attempts to resubscribe to the invalidation channel.
+   */
+  private static final Duration RESUBSCRIBE_MAX_BACKOFF = Duration.ofSeconds(30);
+
+  /**
+   * Repository used when both cache tiers miss.
+   */
+  private final UserRepository userRepository;
+
+  /**
+   * In-process cache tier keyed by email.
+   */
+  private final Cache<String, User> localCache;
+
+  /**
+   * Template accessing the shared tier and the invalidation channel.
+   */
+  private final ReactiveRedisTemplate<String, Object> redisTemplate;
+
+  /**
+   * Registry informed of user versions carried by invalidations.
+   */
+  private final UserVersionRegistry userVersionRegistry;
+
+  /**
+   * Emails of recently changed users, whose reads go to the primary for a while.
+   */
+  private final RecentWrites recentWrites;
+
+  /**
+   * Time to live of shared entries.
+   */
+  private final Duration sharedTimeToLive;
+
+  /**
+   * Counter of L2 hits.
+   */
+  private final Counter sharedHits;
+
+  /**
+   * Counter of L2 misses.
+   */
+  private final Counter sharedMisses;
+
+  /**
+   * Counter of L2 evictions caused by invalidations.
+   */
+  private final Counter sharedEvictions;
+
+  /**
+   * Subscription to the invalidation channel.
+   */
+  private Disposable invalidationSubscription;
+
+  /**
+   * Creates the service.
+   *
+   * @param userRepository      the user repository
+   * @param localCache          the in-process cache holding the L1 tier
+   * @param redisTemplate       the reactive Redis template holding the L2 tier
+   * @param userVersionRegistry the registry of known user versions
+   * @param recentWrites        the emails of recently changed users
+   * @param meterRegistry       the registry receiving L2 metrics
+   * @param sharedTimeToLive    how long a user stays in the shared tier
+   */
+  public TwoTierUserDetailsService(
+      final UserRepository userRepository,
+      final Cache<String, User> localCache,
+      final ReactiveRedisTemplate<String, Object> redisTemplate,
+      final UserVersionRegistry userVersionRegistry,
+      final RecentWrites recentWrites,
+      final MeterRegistry meterRegistry,
+      @Value("${application.cache.users.shared.time-to-live:30s}") final Duration sharedTimeToLive) {
+    this.userRepository = userRepository;
+    this.localCache = localCache;
+    this.redisTemplate = redisTemplate;
+    this.userVersionRegistry = userVersionRegistry;
+    this.recentWrites = recentWrites;
+    this.sharedTimeToLive = sharedTimeToLive;
+
+    Tags l2Tags = Tags.of("cache", CACHE_NAME, "tier", "l2");
+    this.sharedHits = meterRegistry.counter("cache.gets", l2Tags.and("result", "hit"));
+    this.sharedMisses = meterRegistry.counter("cache.gets", l2Tags.and("result", "miss"));
+    this.sharedEvictions = meterRegistry.counter("cache.evictions", l2Tags);
+  }
+
+  /**
+   * Subscribes to the invalidation channel, resubscribing with backoff if Redis goes away.
+   */
+  @PostConstruct
+  public void subscribe() {
+    invalidationSubscription = redisTemplate.listenToChannel(INVALIDATION_CHANNEL)
+        .map(ReactiveSubscription.Message::getMessage)
+        .ofType(UserInvalidation.class)
+        .doOnNext(this::evictLocal)
+        .retryWhen(Retry.backoff(Long.MAX_VALUE, RESUBSCRIBE_MIN_BACKOFF)
+            .maxBackoff(RESUBSCRIBE_MAX_BACKOFF)
+            .doBeforeRetry(signal -> log.warn("User invalidation channel unavailable: {}",
+                signal.failure().getMessage())))
+        .subscribe();
+  }
+
+  /**
+   * Stops listening for invalidations.
+   */
+  @PreDestroy
+  public void unsubscribe() {
+    if (invalidationSubscription != null) {
+      invalidationSubscription.dispose();
+    }
+  }
+
+  /**
+   * Resolves a user by email through L1, then L2, then the database.
+   *
+   * @param username the user's email
+   * @return the user details without credentials
+   */
+  @Override
+  public Mono<UserDetails> findByUsername(final String username) {
+    User cached = localCache.getIfPresent(username);
+    if (cached != null) {
+      return Mono.just(cached);
+    }
+    return readShared(username)
+        .switchIfEmpty(Mono.defer(() -> loadFromDatabase(username)))
+        .map(this::cacheLocally)
+        .switchIfEmpty(Mono.error(new UsernameNotFoundException("User not found")));
+  }
+
+  /**
+   * Resolves several users by email. L1 misses are read from L2 with a single MGET, and the
+   * remaining misses are loaded from the database with a single query. Unknown emails are skipped.
+   *
+   * @param usernames the users' emails
+   * @return the user details without credentials, in no particular order
+   */
+  public Flux<UserDetails> findAllByUsername(final Collection<String> usernames) {
+    return Flux.defer(() -> resolveAll(usernames));
+  }
+
+  private Flux<UserDetails> resolveAll(final Collection<String> usernames) {
+    List<UserDetails> hits = new ArrayList<>();
+    List<String> misses = new ArrayList<>();
+    for (String username : new LinkedHashSet<>(usernames)) {
+      User cached = localCache.getIfPresent(username);
+      if (cached != null) {
+        hits.add(cached);
+      } else {
+        misses.add(username);
+      }
+    }
+    if (misses.isEmpty()) {
+      return Flux.fromIterable(hits);
+    }
+    Flux<UserDetails> resolved = readShared(misses)
+        .flatMapMany(shared -> {
+          Set<String> remaining = new HashSet<>(misses);
+          shared.forEach(snapshot -> remaining.remove(snapshot.email()));
+          return Flux.concat(Flux.fromIterable(shared), loadFromDatabase(remaining));
+        })
+        .map(this::cacheLocally);
+    return Flux.concat(Flux.fromIterable(hits), resolved);
+  }
+
+  /**
+   * Evicts a changed user from the local and shared tiers and tells the other nodes to do the
+   * same.
+   *
+   * @param invalidation the changed user
+   * @return a mono completing once the invalidation is published
+   */
+  public Mono<Void> invalidate(final UserInvalidation invalidation) {
+    return invalidateAll(List.of(invalidation));
+  }
+
+  /**
+   * Evicts changed users from the local and shared tiers and tells the other nodes to do the same.
+   * The shared entries are removed with a single DEL, and the notifications are published together
+   * with it and with the new user versions, which nodes started later load.
+   *
+   * @param invalidations the changed users
+   * @return a mono completing once the invalidations are published
+   */
+  public Mono<Void> invalidateAll(final Collection<UserInvalidation> invalidations) {
+    if (invalidations.isEmpty()) {
+      return Mono.empty();
+    }
+    invalidations.forEach(this::evictLocal);
+    String[] keys = invalidations.stream()
+        .map(invalidation -> key(invalidation.email()))
+        .toArray(String[]::new);
+    Mono<Long> eviction = redisTemplate.delete(keys)
+        .doOnNext(sharedEvictions::increment);
+    Flux<Long> publication = Flux.fromIterable(invalidations)
+        .flatMap(invalidation -> redisTemplate.convertAndSend(INVALIDATION_CHANNEL, invalidation));
+    Flux<Void> versions = Flux.fromIterable(invalidations)
+        .flatMap(invalidation -> userVersionRegistry.storeVersion(invalidation.userId(),
+            invalidation.version()));
+    return Flux.merge(eviction.then(), publication.then(), versions.then())
+        .onErrorResume(e -> {
+          log.warn("Failed to publish invalidation for {} user(s): {}", invalidations.size(),
+              e.getMessage());
+          return Mono.empty();
+        })
+        .then();
+  }
+
+  private void evictLocal(final UserInvalidation invalidation) {
+    userVersionRegistry.recordVersion(invalidation.userId(), invalidation.version());
+    localCache.invalidate(invalidation.email());
+    recentWrites.record(invalidation.email());
+  }
+
+  private UserDetails cacheLocally(final UserSnapshot snapshot) {
+    User user = snapshot.toUser();
+    localCache.put(snapshot.email(), user);
+    return user;
+  }
+
+  private Mono<UserSnapshot> readShared(final String username) {
+    return redisTemplate.opsForValue().get(key(username))
+        .ofType(UserSnapshot.class)
+        .doOnNext(snapshot -> sharedHits.increment())
+        .switchIfEmpty(Mono.fromRunnable(sharedMisses::increment))
+        .onErrorResume(e -> {
+          log.warn("Shared user cache unavailable: {}", e.getMessage());
+          return Mono.empty();
+        });
+  }
+
+  private Mono<List<UserSnapshot>> readShared(final List<String> usernames) {
+    List<String> keys = usernames.stream().map(TwoTierUserDetailsService::key).toList();
+    return redisTemplate.opsForValue().multiGet(keys)
+        .map(values -> {
+          List<UserSnapshot> snapshots = new ArrayList<>(values.size());
+          for (Object value : values) {
+            if (value instanceof UserSnapshot snapshot) {
+              snapshots.add(snapshot);
+            }
+          }
+          sharedHits.increment(snapshots.size());
+          sharedMisses.increment(usernames.size() - snapshots.size());
+          return snapshots;
+        })
+        .onErrorResume(e -> {
+          log.warn("Shared user cache unavailable: {}", e.getMessage());
+          return Mono.just(List.of());
+        });
+  }
+
+  private Mono<UserSnapshot> loadFromDatabase(final String username) {
+    return userRepository.findByEmail(username)
+        .map(UserSnapshot::from)
+        .doOnNext(snapshot -> writeShared(List.of(snapshot)));
+  }
+
+  private Flux<UserSnapshot> loadFromDatabase(final Collection<String> usernames) {
+    if (usernames.isEmpty()) {
+      return Flux.empty();
+    }
+    return userRepository.findAllByEmailIn(usernames)
+        .map(UserSnapshot::from)
+        .collectList()
+        .doOnNext(this::writeShared)
+        .flatMapIterable(snapshots -> snapshots);
+  }
+
+  /**
+   * Populates the shared tier in the background. All SET commands are issued at once, so they are
+   * pipelined on the shared connection.
+   *
+   * @param snapshots the users to cache
+   */
+  private void writeShared(final List<UserSnapshot> snapshots) {
+    Flux.fromIterable(snapshots)
+        .flatMap(snapshot -> redisTemplate.opsForValue()
+            .set(key(snapshot.email()), snapshot, sharedTimeToLive))
+        .subscribe(null, e -> log.warn("Failed to populate shared user cache: {}",
+            e.getMessage()));
+  }
+
+  private static String key(final String username) {
+    return KEY_PREFIX + username;
+  }
+}
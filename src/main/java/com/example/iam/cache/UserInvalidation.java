@@ -0,0 +1,19 @@
+package com.example.iam.cache;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Message broadcast to all nodes when a user changes, so that each node drops its cached copy.
+ *
+ * @param userId  the changed user's id
+ * @param email   the changed user's email, which is the cache key
+ * @param version the user's entity version after the change
+ */
+public record UserInvalidation(
+    UUID userId,
+    String email,
+    long version
+) implements Serializable {
+
+}
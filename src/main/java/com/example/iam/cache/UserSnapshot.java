@@ -0,0 +1,78 @@
+package com.example.iam.cache;
+
+import java.io.Serializable;
+import java.util.Set;
+import java.util.UUID;
+
+import com.example.iam.domain.user.User;
+import com.example.iam.domain.user.UserRole;
+
+/**
+ * Cacheable copy of a user's details. The password hash is deliberately left out so that it never
+ * leaves the database.
+ *
+ * @param id                    the user's id
+ * @param email                 the user's email
+ * @param firstName             the user's first name
+ * @param lastName              the user's last name
+ * @param roles                 the user's roles
+ * @param enabled               whether the account is enabled
+ * @param accountNonLocked      whether the account is not locked
+ * @param accountNonExpired     whether the account is not expired
+ * @param credentialsNonExpired whether the credentials are not expired
+ * @param version               the user's entity version
+ */
+public record UserSnapshot(
+    UUID id,
+    String email,
+    String firstName,
+    String lastName,
+    Set<UserRole> roles,
+    boolean enabled,
+    boolean accountNonLocked,
+    boolean accountNonExpired,
+    boolean credentialsNonExpired,
+    Long version
+) implements Serializable {
+
+  /**
+   * Creates a snapshot of the given user.
+   *
+   * @param user the user loaded from the database
+   * @return the snapshot
+   */
+  public static UserSnapshot from(final User user) {
+    return new UserSnapshot(
+        user.getId(),
+        user.getEmail(),
+        user.getFirstName(),
+        user.getLastName(),
+        user.getRoles(),
+        user.isEnabled(),
+        user.isAccountNonLocked(),
+        user.isAccountNonExpired(),
+        user.isCredentialsNonExpired(),
+        user.getVersion());
+  }
+
+  /**
+   * Rebuilds a user without credentials from this snapshot.
+   *
+   * @return the user
+   */
+  public User toUser() {
+    User user = User.builder()
+        .email(email)
+        .firstName(firstName)
+        .lastName(lastName)
+        .roles(roles)
+        .enabled(enabled)
+        .accountNonLocked(accountNonLocked)
+        .accountNonExpired(accountNonExpired)
+        .credentialsNonExpired(credentialsNonExpired)
+        .build();
+    user.setId(id);
+    user.setVersion(version);
+    return user;
+  }
+}
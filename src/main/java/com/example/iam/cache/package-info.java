@@ -0,0 +1,6 @@
+/**
+ * Caching package for the IAM service.
+ * <p>
+ * Contains caching layers for: - User details lookups - Cross-node cache invalidation
+ */
+package com.example.iam.cache;
@@ -1,16 +1,18 @@
 package com.example.iam.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.security.authentication.ReactiveAuthenticationManager;
 import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
 import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import com.example.iam.repository.UserRepository;
+import com.example.iam.security.PasswordEncoders;
 
 import lombok.RequiredArgsConstructor;
 import reactor.core.publisher.Mono;
@@ -20,7 +22,7 @@ import reactor.core.publisher.Mono;
  */
 @Configuration
 @RequiredArgsConstructor
-public final class ApplicationConfig {
+public class ApplicationConfig {
 
   /**
    * Repository for user-related database operations.
@@ -41,26 +43,48 @@ public final class ApplicationConfig {
   }
 
   /**
-   * Creates a ReactiveAuthenticationManager bean for authentication handling.
+   * Creates a ReactiveAuthenticationManager bean for authentication handling. It is the primary
+   * manager; bearer tokens are handled by the JWT manager wired into the security filter chain.
    *
+   * @param passwordEncoder the password encoder
    * @return A configured ReactiveAuthenticationManager
    */
   @Bean
-  public ReactiveAuthenticationManager authenticationManager() {
+  @Primary
+  public ReactiveAuthenticationManager authenticationManager(
+      final PasswordEncoder passwordEncoder) {
     UserDetailsRepositoryReactiveAuthenticationManager authManager =
         new UserDetailsRepositoryReactiveAuthenticationManager(
             userDetailsService());
-    authManager.setPasswordEncoder(passwordEncoder());
+    authManager.setPasswordEncoder(passwordEncoder);
     return authManager;
   }
 
   /**
-   * Creates a PasswordEncoder bean for password hashing.
+   * Creates a PasswordEncoder bean for password hashing. New hashes use the configured algorithm
+   * and cost and carry an {@code {id}} prefix; hashes of any supported algorithm and PBKDF2
+   * iteration count still verify.
    *
-   * @return A BCryptPasswordEncoder instance
+   * @param encodingId        the algorithm used for new hashes
+   * @param bcryptStrength    the BCrypt log2 rounds
+   * @param argon2MemoryKib   the Argon2 memory cost in KiB
+   * @param argon2Iterations  the Argon2 iterations
+   * @param argon2Parallelism the Argon2 parallelism
+   * @param pbkdf2Iterations  the PBKDF2 iterations
+   * @return A delegating PasswordEncoder instance
    */
   @Bean
-  public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+  public PasswordEncoder passwordEncoder(
+      @Value("${application.security.password.encoder:bcrypt}") final String encodingId,
+      @Value("${application.security.password.bcrypt.strength:10}") final int bcryptStrength,
+      @Value("${application.security.password.argon2.memory:19456}") final int argon2MemoryKib,
+      @Value("${application.security.password.argon2.iterations:2}") final int argon2Iterations,
+      @Value("${application.security.password.argon2.parallelism:1}") final int argon2Parallelism,
+      @Value("${application.security.password.pbkdf2.iterations:600000}") final int pbkdf2Iterations) {
+    return PasswordEncoders.delegating(
+        encodingId,
+        PasswordEncoders.bcrypt(bcryptStrength),
+        PasswordEncoders.argon2(argon2MemoryKib, argon2Iterations, argon2Parallelism),
+        pbkdf2Iterations);
   }
 }
@@ -1,12 +0,0 @@
-package com.example.iam.config;
-
-import org.springframework.context.annotation.Configuration;
-import org.springframework.data.r2dbc.config.EnableR2dbcAuditing;
-import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
-
-@Configuration
-@EnableR2dbcAuditing
-@EnableR2dbcRepositories(basePackages = "com.example.iam.repository")
-public class AuditingConfig {
-
-}
@@ -0,0 +1,46 @@
+package com.example.iam.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.iam.cache.TwoTierUserDetailsService;
+import com.example.iam.domain.user.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Configuration class for the in-process cache tiers.
+ */
+@Configuration
+public class CacheConfig {
+
+  /**
+   * Creates the bounded in-process (L1) user cache, keyed by email.
+   *
+   * @param maximumSize   the maximum number of users held
+   * @param timeToLive    how long a user stays cached after being loaded
+   * @param meterRegistry the registry receiving the cache metrics
+   * @return the local user cache
+   */
+  @Bean
+  public Cache<String, User> localUserCache(
+      @Value("${application.cache.users.local.maximum-size:10000}") final long maximumSize,
+      @Value("${application.cache.users.local.time-to-live:30s}") final Duration timeToLive,
+      final MeterRegistry meterRegistry) {
+    Cache<String, User> cache = Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(timeToLive)
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, TwoTierUserDetailsService.CACHE_NAME,
+        Tags.of("tier", "l1"));
+    return cache;
+  }
+}
@@ -0,0 +1,106 @@
+package com.example.iam.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Wrapped;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Configuration class for the R2DBC connection pool. The pool itself is built by Spring Boot from
+ * the {@code spring.r2dbc.pool} properties and exports its size gauges as {@code r2dbc.pool.*};
+ * this class adds acquisition metrics and opens the initial connections before the application
+ * reports itself ready.
+ */
+@Slf4j
+@Configuration
+public class ConnectionPoolConfig {
+
+  /**
+   * Wraps the connection pool bean so each acquisition is timed. A
+   * {@code ConnectionFactoryDecorator} would not do, since Spring Boot applies those to the
+   * driver's factory underneath the pool. It runs ahead of other post processors, so a router
+   * wrapping the connection factory sees the metered pool.
+   *
+   * @param meterRegistry the registry receiving the acquisition metrics, resolved on first use
+   * @return the post processor wrapping the pool
+   */
+  @Bean
+  public static BeanPostProcessor meteredConnectionPoolPostProcessor(
+      final ObjectProvider<MeterRegistry> meterRegistry) {
+    return new MeteredConnectionPoolPostProcessor(meterRegistry);
+  }
+
+  /**
+   * Opens the pool's initial connections at startup. Application runners complete before the
+   * readiness state turns to accepting traffic, so the first requests after a deploy do not pay
+   * for connection setup. A failed warm-up is logged and connections are then opened on demand.
+   *
+   * @param connectionFactory the pooled connection factory
+   * @param timeout           how long the warm-up may delay readiness
+   * @return the warm-up runner
+   */
+  @Bean
+  public ApplicationRunner connectionPoolWarmUp(
+      final ConnectionFactory connectionFactory,
+      @Value("${application.database.pool.warm-up-timeout:30s}") final Duration timeout) {
+    return args -> {
+      ConnectionPool pool = connectionPool(connectionFactory);
+      if (pool == null) {
+        return;
+      }
+      try {
+        Integer warmed = pool.warmup().block(timeout);
+        log.info("Warmed up {} database connections", warmed);
+      } catch (RuntimeException e) {
+        log.warn("Database connection pool warm-up failed: {}", e.getMessage());
+      }
+    };
+  }
+
+  private static ConnectionPool connectionPool(final ConnectionFactory connectionFactory) {
+    Object current = connectionFactory;
+    while (!(current instanceof ConnectionPool) && current instanceof Wrapped<?> wrapped) {
+      current = wrapped.unwrap();
+    }
+    return current instanceof ConnectionPool pool ? pool : null;
+  }
+
+  /**
+   * Post processor wrapping the connection pool bean in a {@link MeteredConnectionFactory}.
+   */
+  private static final class MeteredConnectionPoolPostProcessor
+      implements BeanPostProcessor, Ordered {
+
+    /**
+     * Registry receiving the acquisition metrics.
+     */
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    MeteredConnectionPoolPostProcessor(final ObjectProvider<MeterRegistry> meterRegistry) {
+      this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+      return bean instanceof ConnectionPool pool
+          ? new MeteredConnectionFactory(pool, meterRegistry.getObject())
+          : bean;
+    }
+
+    @Override
+    public int getOrder() {
+      return Ordered.HIGHEST_PRECEDENCE;
+    }
+  }
+}
@@ -0,0 +1,27 @@
+package com.example.iam.config;
+
+import org.reactivestreams.Publisher;
+import org.springframework.data.r2dbc.mapping.event.BeforeConvertCallback;
+import org.springframework.data.relational.core.sql.SqlIdentifier;
+import org.springframework.stereotype.Component;
+
+import com.example.iam.domain.common.BaseEntity;
+import com.example.iam.domain.common.UuidV7Generator;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Assigns a time-ordered UUIDv7 id to entities inserted without one. Spring Data has already
+ * decided that such an entity is new when the callback runs.
+ */
+@Component
+public final class EntityIdCallback implements BeforeConvertCallback<BaseEntity> {
+
+  @Override
+  public Publisher<BaseEntity> onBeforeConvert(final BaseEntity entity, final SqlIdentifier table) {
+    if (entity.getId() == null) {
+      entity.setId(UuidV7Generator.generate());
+    }
+    return Mono.just(entity);
+  }
+}
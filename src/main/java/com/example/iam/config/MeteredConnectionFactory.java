@@ -0,0 +1,111 @@
+package com.example.iam.config;
+
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.PoolMetrics;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.Wrapped;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+/**
+ * Connection factory timing each acquisition from the connection pool it wraps, and recording how
+ * many acquisitions were already queued when it started. The pool stays reachable through
+ * {@link Wrapped}, so the pool gauges and health checks still find it, and disposing of the
+ * wrapper disposes of the pool.
+ */
+final class MeteredConnectionFactory
+    implements ConnectionFactory, Wrapped<ConnectionFactory>, Disposable {
+
+  /**
+   * Pool handing out the connections.
+   */
+  private final ConnectionFactory delegate;
+
+  /**
+   * Metrics of the pool, if the delegate is a pool with metrics enabled.
+   */
+  private final PoolMetrics poolMetrics;
+
+  /**
+   * Timer of successful acquisitions.
+   */
+  private final Timer acquired;
+
+  /**
+   * Timer of acquisitions that failed or timed out.
+   */
+  private final Timer failed;
+
+  /**
+   * Number of acquisitions already waiting for a connection when an acquisition starts.
+   */
+  private final DistributionSummary queued;
+
+  /**
+   * Wraps a connection pool.
+   *
+   * @param delegate      the connection pool
+   * @param meterRegistry the registry receiving the acquisition metrics
+   */
+  MeteredConnectionFactory(final ConnectionFactory delegate, final MeterRegistry meterRegistry) {
+    this.delegate = delegate;
+    this.poolMetrics = delegate instanceof ConnectionPool pool ? pool.getMetrics().orElse(null)
+        : null;
+    this.acquired = acquireTimer(meterRegistry, "success");
+    this.failed = acquireTimer(meterRegistry, "failure");
+    this.queued = DistributionSummary.builder("r2dbc.pool.acquire.pending")
+        .description("Acquisitions already waiting for a connection when an acquisition starts")
+        .publishPercentileHistogram()
+        .register(meterRegistry);
+  }
+
+  @Override
+  public Mono<Connection> create() {
+    return Mono.defer(() -> {
+      if (poolMetrics != null) {
+        queued.record(poolMetrics.pendingAcquireSize());
+      }
+      long start = System.nanoTime();
+      return Mono.<Connection>from(delegate.create())
+          .doOnSuccess(connection -> acquired.record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+          .doOnError(e -> failed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    });
+  }
+
+  @Override
+  public ConnectionFactoryMetadata getMetadata() {
+    return delegate.getMetadata();
+  }
+
+  @Override
+  public ConnectionFactory unwrap() {
+    return delegate;
+  }
+
+  @Override
+  public void dispose() {
+    if (delegate instanceof Disposable disposable) {
+      disposable.dispose();
+    }
+  }
+
+  @Override
+  public boolean isDisposed() {
+    return delegate instanceof Disposable disposable && disposable.isDisposed();
+  }
+
+  private static Timer acquireTimer(final MeterRegistry meterRegistry, final String outcome) {
+    return Timer.builder("r2dbc.pool.acquire")
+        .description("Time to acquire a connection from the pool")
+        .tag("outcome", outcome)
+        .publishPercentileHistogram()
+        .register(meterRegistry);
+  }
+}
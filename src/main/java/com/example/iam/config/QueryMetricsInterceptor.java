@@ -0,0 +1,168 @@
+package com.example.iam.config;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Repository interceptor timing each query from subscription to termination and counting the rows
+ * it emits, per repository method. The meters of a method are looked up once and reused; only
+ * successful queries publish a latency histogram, failures and cancellations are just counted and
+ * timed.
+ */
+final class QueryMetricsInterceptor implements MethodInterceptor {
+
+  /**
+   * Name of the query latency timer.
+   */
+  static final String QUERY_TIMER = "iam.repository.queries";
+
+  /**
+   * Name of the row count summary.
+   */
+  static final String ROW_SUMMARY = "iam.repository.rows";
+
+  /**
+   * Registry receiving the query metrics.
+   */
+  private final MeterRegistry meterRegistry;
+
+  /**
+   * Simple name of the repository interface, used as the repository tag.
+   */
+  private final String repository;
+
+  /**
+   * Meters of each repository method invoked so far.
+   */
+  private final Map<Method, QueryMeters> meters = new ConcurrentHashMap<>();
+
+  /**
+   * Creates an interceptor for one repository.
+   *
+   * @param meterRegistry the registry receiving the query metrics
+   * @param repository    the name of the repository
+   */
+  QueryMetricsInterceptor(final MeterRegistry meterRegistry, final String repository) {
+    this.meterRegistry = meterRegistry;
+    this.repository = repository;
+  }
+
+  @Override
+  public Object invoke(final MethodInvocation invocation) throws Throwable {
+    Object result = invocation.proceed();
+    if (result instanceof Mono<?> mono) {
+      QueryMeters queryMeters = meters(invocation.getMethod());
+      return Mono.defer(() -> {
+        QuerySample sample = new QuerySample();
+        return mono.doOnNext(row -> sample.rows++)
+            .doFinally(signal -> queryMeters.record(sample, signal));
+      });
+    }
+    if (result instanceof Flux<?> flux) {
+      QueryMeters queryMeters = meters(invocation.getMethod());
+      return Flux.defer(() -> {
+        QuerySample sample = new QuerySample();
+        return flux.doOnNext(row -> sample.rows++)
+            .doFinally(signal -> queryMeters.record(sample, signal));
+      });
+    }
+    return result;
+  }
+
+  private QueryMeters meters(final Method method) {
+    return meters.computeIfAbsent(method, m -> new QueryMeters(meterRegistry, repository,
+        m.getName()));
+  }
+
+  /**
+   * Start time and row count of one query execution.
+   */
+  private static final class QuerySample {
+
+    /**
+     * Time at which the query was subscribed to.
+     */
+    private final long start = System.nanoTime();
+
+    /**
+     * Number of rows emitted so far.
+     */
+    private long rows;
+  }
+
+  /**
+   * Meters of one repository method.
+   */
+  private static final class QueryMeters {
+
+    /**
+     * Latency of queries that completed.
+     */
+    private final Timer succeeded;
+
+    /**
+     * Latency of queries that failed.
+     */
+    private final Timer failed;
+
+    /**
+     * Latency of queries cancelled before completion.
+     */
+    private final Timer cancelled;
+
+    /**
+     * Rows emitted by queries that completed.
+     */
+    private final DistributionSummary rows;
+
+    QueryMeters(final MeterRegistry meterRegistry, final String repository, final String method) {
+      this.succeeded = timer(meterRegistry, repository, method, "success", true);
+      this.failed = timer(meterRegistry, repository, method, "error", false);
+      this.cancelled = timer(meterRegistry, repository, method, "cancelled", false);
+      this.rows = DistributionSummary.builder(ROW_SUMMARY)
+          .description("Rows returned per repository query")
+          .tag("repository", repository)
+          .tag("method", method)
+          .register(meterRegistry);
+    }
+
+    void record(final QuerySample sample, final SignalType signal) {
+      long elapsed = System.nanoTime() - sample.start;
+      switch (signal) {
+        case ON_COMPLETE -> {
+          succeeded.record(elapsed, TimeUnit.NANOSECONDS);
+          rows.record(sample.rows);
+        }
+        case ON_ERROR -> failed.record(elapsed, TimeUnit.NANOSECONDS);
+        default -> cancelled.record(elapsed, TimeUnit.NANOSECONDS);
+      }
+    }
+
+    private static Timer timer(
+        final MeterRegistry meterRegistry,
+        final String repository,
+        final String method,
+        final String outcome,
+        final boolean histogram) {
+      return Timer.builder(QUERY_TIMER)
+          .description("Latency of repository queries, from subscription to termination")
+          .tag("repository", repository)
+          .tag("method", method)
+          .tag("outcome", outcome)
+          .publishPercentileHistogram(histogram)
+          .register(meterRegistry);
+    }
+  }
+}
@@ -10,29 +10,32 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.SocketOptions;
+import io.lettuce.core.TimeoutOptions;
+
 /**
  * Configuration class for Redis caching and connection settings.
  */
 @Configuration
-public final class RedisConfig {
+public class RedisConfig {
 
   /**
    * Default cache TTL in seconds.
    */
   private static final int DEFAULT_CACHE_TTL = 60;
 
-  /**
-   * User cache TTL in seconds.
-   */
-  private static final int USER_CACHE_TTL = 30;
-
   /**
    * Auth token cache TTL in seconds.
    */
@@ -41,41 +44,76 @@ public final class RedisConfig {
   /**
    * Redis host from configuration.
    */
-  @Value("${spring.redis.host}")
+  @Value("${spring.data.redis.host:localhost}")
   private String redisHost;
 
   /**
    * Redis port from configuration.
    */
-  @Value("${spring.redis.port}")
+  @Value("${spring.data.redis.port:6379}")
   private int redisPort;
 
   /**
-   * Creates Redis connection factory.
+   * Maximum time to wait for a command reply.
+   */
+  @Value("${spring.data.redis.timeout:2s}")
+  private Duration commandTimeout;
+
+  /**
+   * Maximum time to wait for a connection to be established.
+   */
+  @Value("${spring.data.redis.connect-timeout:2s}")
+  private Duration connectTimeout;
+
+  /**
+   * Creates the Lettuce connection factory. Blocking and reactive clients share a single native
+   * connection, on which Lettuce pipelines commands issued without awaiting earlier replies.
    *
    * @return the Redis connection factory
    */
   @Bean
-  public RedisConnectionFactory redisConnectionFactory() {
+  public LettuceConnectionFactory redisConnectionFactory() {
     RedisStandaloneConfiguration config =
         new RedisStandaloneConfiguration(redisHost, redisPort);
-    return new LettuceConnectionFactory(config);
+    ClientOptions clientOptions = ClientOptions.builder()
+        .socketOptions(SocketOptions.builder().connectTimeout(connectTimeout).build())
+        .timeoutOptions(TimeoutOptions.enabled(commandTimeout))
+        .build();
+    LettuceClientConfiguration clientConfig = LettuceClientConfiguration.builder()
+        .commandTimeout(commandTimeout)
+        .clientOptions(clientOptions)
+        .build();
+    LettuceConnectionFactory factory = new LettuceConnectionFactory(config, clientConfig);
+    factory.setShareNativeConnection(true);
+    return factory;
   }
 
   /**
-   * Creates Redis template for key-value operations.
+   * Creates the non-blocking Redis template used on the request path.
    *
-   * @param connectionFactory the Redis connection factory
-   * @return the configured Redis template
+   * @param connectionFactory the reactive Redis connection factory
+   * @return the configured reactive Redis template
+   */
+  @Bean
+  public ReactiveRedisTemplate<String, Object> reactiveRedisTemplate(
+      final ReactiveRedisConnectionFactory connectionFactory) {
+    RedisSerializationContext<String, Object> context = RedisSerializationContext
+        .<String, Object>newSerializationContext(new StringRedisSerializer())
+        .value(new GenericJackson2JsonRedisSerializer())
+        .build();
+    return new ReactiveRedisTemplate<>(connectionFactory, context);
+  }
+
+  /**
+   * Creates the non-blocking Redis template for plain string keys and values.
+   *
+   * @param connectionFactory the reactive Redis connection factory
+   * @return the reactive string Redis template
    */
   @Bean
-  public RedisTemplate<String, Object> redisTemplate(
-      final RedisConnectionFactory connectionFactory) {
-    RedisTemplate<String, Object> template = new RedisTemplate<>();
-    template.setConnectionFactory(connectionFactory);
-    template.setKeySerializer(new StringRedisSerializer());
-    template.setValueSerializer(new GenericJackson2JsonRedisSerializer());
-    return template;
+  public ReactiveStringRedisTemplate reactiveStringRedisTemplate(
+      final ReactiveRedisConnectionFactory connectionFactory) {
+    return new ReactiveStringRedisTemplate(connectionFactory);
   }
 
   /**
@@ -92,9 +130,6 @@ public final class RedisConfig {
 
     Map<String, RedisCacheConfiguration> configs = new HashMap<>();
 
-    configs.put("users", RedisCacheConfiguration.defaultCacheConfig()
-        .entryTtl(Duration.ofSeconds(USER_CACHE_TTL)));
-
     configs.put("authTokens", RedisCacheConfiguration.defaultCacheConfig()
         .entryTtl(Duration.ofSeconds(AUTH_TOKEN_CACHE_TTL)));
 
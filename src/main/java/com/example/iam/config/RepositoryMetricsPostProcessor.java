@@ -0,0 +1,42 @@
+package com.example.iam.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Adds a {@link QueryMetricsInterceptor} to every Spring Data repository as it is created, which
+ * covers derived, annotated and custom fragment methods alike. The per-query metrics replace
+ * statement logging as the way to spot slow queries in production.
+ */
+@Component
+public final class RepositoryMetricsPostProcessor implements BeanPostProcessor {
+
+  /**
+   * Registry receiving the query metrics, resolved when the first repository is created.
+   */
+  private final ObjectProvider<MeterRegistry> meterRegistry;
+
+  /**
+   * Creates the post processor.
+   *
+   * @param meterRegistry the registry receiving the query metrics
+   */
+  public RepositoryMetricsPostProcessor(final ObjectProvider<MeterRegistry> meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  public Object postProcessBeforeInitialization(final Object bean, final String beanName) {
+    if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+      factoryBean.addRepositoryFactoryCustomizer(factory -> factory
+          .addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) -> proxyFactory
+              .addAdvice(new QueryMetricsInterceptor(meterRegistry.getObject(),
+                  repositoryInformation.getRepositoryInterface().getSimpleName()))));
+    }
+    return bean;
+  }
+}
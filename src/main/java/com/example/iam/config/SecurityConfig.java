@@ -1,27 +1,62 @@
 package com.example.iam.config;
 
+import java.util.List;
+
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
 import org.springframework.security.web.server.SecurityWebFilterChain;
-import org.springframework.security.web.server.context.WebSessionServerSecurityContextRepository;
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.authentication.ServerAuthenticationEntryPointFailureHandler;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.security.web.server.savedrequest.NoOpServerRequestCache;
+import org.springframework.security.web.server.util.matcher.NegatedServerWebExchangeMatcher;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher.MatchResult;
 
-import com.example.iam.security.JwtAuthenticationFilter;
+import com.example.iam.domain.user.UserRole;
+import com.example.iam.security.BearerTokenServerAuthenticationConverter;
+import com.example.iam.security.JwtReactiveAuthenticationManager;
 
 import lombok.RequiredArgsConstructor;
 
 /**
- * Security configuration class for the IAM service.
+ * Security configuration class for the IAM service. Requests are authenticated by their bearer
+ * token alone: no session is created or read, and public paths skip token processing entirely.
  */
 @Configuration
 @RequiredArgsConstructor
-public final class SecurityConfig {
+public class SecurityConfig {
+
+  /**
+   * Paths reachable without a token, together with everything below them. The health endpoint
+   * includes the liveness and readiness probes, and shows details to authenticated users only.
+   */
+  private static final List<String> PUBLIC_PATHS = List.of(
+      "/api/v1/auth", "/.well-known/jwks.json", "/actuator/health",
+      "/swagger-ui.html", "/swagger-ui", "/v3/api-docs", "/webjars", "/api-docs");
+
+  /**
+   * Matches the public paths by plain string comparison. It runs twice per request, to skip token
+   * processing and to authorize, so it avoids the allocations of {@code PathPattern} matching.
+   */
+  private static final ServerWebExchangeMatcher PUBLIC_PATHS_MATCHER = exchange ->
+      isPublic(exchange.getRequest().getPath().pathWithinApplication().value())
+          ? MatchResult.match() : MatchResult.notMatch();
+
+  /**
+   * The JWT authentication manager.
+   */
+  private final JwtReactiveAuthenticationManager jwtAuthenticationManager;
 
   /**
-   * The JWT authentication filter.
+   * Converter extracting bearer tokens from requests.
    */
-  private final JwtAuthenticationFilter jwtAuthFilter;
+  private final BearerTokenServerAuthenticationConverter bearerTokenConverter;
 
   /**
    * Configures the security filter chain.
@@ -35,19 +70,54 @@ public final class SecurityConfig {
     return http
         .csrf(ServerHttpSecurity.CsrfSpec::disable)
         .authorizeExchange(auth -> auth
-            .pathMatchers("/api/v1/auth/**")
-            .permitAll()
-            .pathMatchers("/swagger-ui.html", "/swagger-ui/**", "/v3/api-docs/**", "/webjars/**",
-                "/api-docs/**").permitAll()
+            .matchers(PUBLIC_PATHS_MATCHER).permitAll()
+            .pathMatchers("/api/v1/admin/**").hasRole(UserRole.ADMIN.name())
+            .pathMatchers("/api/v1/introspect/**")
+            .hasAnyRole(UserRole.INTROSPECTOR.name(), UserRole.ADMIN.name())
+            .pathMatchers(HttpMethod.GET, "/api/v1/users").hasRole(UserRole.ADMIN.name())
             .anyExchange()
             .authenticated()
         )
-        .securityContextRepository(
-            new WebSessionServerSecurityContextRepository())
-        .addFilterAt(jwtAuthFilter,
+        .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+        .requestCache(cache -> cache.requestCache(NoOpServerRequestCache.getInstance()))
+        .addFilterAt(bearerTokenAuthenticationFilter(),
             SecurityWebFiltersOrder.AUTHENTICATION)
         .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
         .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+        .logout(ServerHttpSecurity.LogoutSpec::disable)
         .build();
   }
+
+  /**
+   * Creates the filter authenticating bearer tokens. It is not a bean, so it only runs inside the
+   * security filter chain.
+   *
+   * @return the authentication filter
+   */
+  private AuthenticationWebFilter bearerTokenAuthenticationFilter() {
+    AuthenticationWebFilter filter = new AuthenticationWebFilter(jwtAuthenticationManager);
+    filter.setServerAuthenticationConverter(bearerTokenConverter);
+    filter.setSecurityContextRepository(NoOpServerSecurityContextRepository.getInstance());
+    filter.setRequiresAuthenticationMatcher(
+        new NegatedServerWebExchangeMatcher(PUBLIC_PATHS_MATCHER));
+    filter.setAuthenticationFailureHandler(new ServerAuthenticationEntryPointFailureHandler(
+        new HttpStatusServerEntryPoint(HttpStatus.UNAUTHORIZED)));
+    return filter;
+  }
+
+  /**
+   * Tells whether a path is one of the public paths or lies below one.
+   *
+   * @param path the path within the application
+   * @return true if the path is reachable without a token
+   */
+  private static boolean isPublic(final String path) {
+    for (String publicPath : PUBLIC_PATHS) {
+      if (path.startsWith(publicPath) && (path.length() == publicPath.length()
+          || path.charAt(publicPath.length()) == '/')) {
+        return true;
+      }
+    }
+    return false;
+  }
 }
@@ -9,7 +9,9 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.example.iam.dto.AuthenticationRequest;
 import com.example.iam.dto.AuthenticationResponse;
+import com.example.iam.dto.RefreshTokenRequest;
 import com.example.iam.dto.RegisterRequest;
+import com.example.iam.dto.RevokeTokenRequest;
 import com.example.iam.service.AuthenticationService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -69,4 +71,42 @@ public final class AuthenticationController {
     return authenticationService.authenticate(request)
         .map(ResponseEntity::ok);
   }
+
+  /**
+   * Handles refresh token exchanges.
+   *
+   * @param request the refresh token
+   * @return Authentication response with a new token pair
+   */
+  @PostMapping(value = "/refresh", produces = MediaType.APPLICATION_JSON_VALUE)
+  @Operation(
+      summary = "Refresh tokens",
+      description = "Exchange a refresh token for a new access and refresh token pair. "
+          + "Each refresh token can be used once; reusing one revokes its whole session"
+  )
+  public Mono<ResponseEntity<AuthenticationResponse>> refresh(
+      @Valid @RequestBody final RefreshTokenRequest request
+  ) {
+    return authenticationService.refresh(request)
+        .map(ResponseEntity::ok);
+  }
+
+  /**
+   * Handles token revocation requests.
+   *
+   * @param request the token to revoke
+   * @return an empty response, also when the token was already invalid
+   */
+  @PostMapping("/revoke")
+  @Operation(
+      summary = "Revoke a token",
+      description = "Revoke an access or refresh token before it expires. "
+          + "Revoking a refresh token ends its whole session"
+  )
+  public Mono<ResponseEntity<Void>> revoke(
+      @Valid @RequestBody final RevokeTokenRequest request
+  ) {
+    return authenticationService.revoke(request)
+        .then(Mono.just(ResponseEntity.ok().build()));
+  }
 }
@@ -0,0 +1,66 @@
+package com.example.iam.controller;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.iam.security.SigningKeyRing;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirements;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Controller publishing the token verification keys, so that other services can verify tokens
+ * locally.
+ */
+@RestController
+@Tag(name = "Keys", description = "Token verification keys")
+@SecurityRequirements
+public final class JwksController {
+
+  /**
+   * Keys used to sign and verify tokens.
+   */
+  private final SigningKeyRing keyRing;
+
+  /**
+   * How long clients may cache the key set.
+   */
+  private final CacheControl cacheControl;
+
+  /**
+   * Creates the controller.
+   *
+   * @param keyRing the keys used to sign and verify tokens
+   * @param maxAge  how long clients may cache the key set
+   */
+  public JwksController(
+      final SigningKeyRing keyRing,
+      @Value("${application.security.jwt.keys.jwks-max-age:5m}") final Duration maxAge) {
+    this.keyRing = keyRing;
+    this.cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+  }
+
+  /**
+   * Returns the public keys as a JSON Web Key Set.
+   *
+   * @return the key set, or 304 if the client's copy is current
+   */
+  @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+  @Operation(
+      summary = "JSON Web Key Set",
+      description = "Public keys verifying the tokens issued by this service, selected by kid"
+  )
+  public ResponseEntity<String> jwks() {
+    return ResponseEntity.ok()
+        .cacheControl(cacheControl)
+        .eTag(keyRing.jwksETag())
+        .body(keyRing.jwks());
+  }
+}
@@ -0,0 +1,86 @@
+package com.example.iam.controller;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.example.iam.dto.BatchIntrospectionRequest;
+import com.example.iam.dto.BatchIntrospectionResponse;
+import com.example.iam.dto.IntrospectionResponse;
+import com.example.iam.service.TokenIntrospectionService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * Controller handling token introspection for API gateways. As RFC 7662 requires, callers must
+ * authenticate; only tokens with the {@code INTROSPECTOR} or {@code ADMIN} role are admitted.
+ */
+@RestController
+@RequestMapping("/api/v1/introspect")
+@RequiredArgsConstructor
+@Tag(name = "Introspection", description = "Token introspection APIs")
+@SecurityRequirement(name = "Bearer Authentication")
+public final class TokenIntrospectionController {
+
+  /**
+   * Form parameter carrying the token, as defined by RFC 7662.
+   */
+  private static final String TOKEN_PARAMETER = "token";
+
+  /**
+   * Service introspecting tokens.
+   */
+  private final TokenIntrospectionService introspectionService;
+
+  /**
+   * Handles RFC 7662 introspection requests.
+   *
+   * @param exchange the current exchange, whose form data carries the token
+   * @return the introspection result
+   */
+  @PostMapping(
+      consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  @Operation(
+      summary = "Introspect a token",
+      description = "Return whether an access token is active, and its claims if it is"
+  )
+  public Mono<ResponseEntity<IntrospectionResponse>> introspect(final ServerWebExchange exchange) {
+    return exchange.getFormData()
+        .mapNotNull(form -> form.getFirst(TOKEN_PARAMETER))
+        .flatMap(introspectionService::introspect)
+        .defaultIfEmpty(IntrospectionResponse.INACTIVE)
+        .map(ResponseEntity::ok);
+  }
+
+  /**
+   * Handles batch introspection requests.
+   *
+   * @param request the tokens to introspect
+   * @return one introspection result per token, in request order
+   */
+  @PostMapping(
+      value = "/batch",
+      consumes = MediaType.APPLICATION_JSON_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  @Operation(
+      summary = "Introspect tokens in bulk",
+      description = "Introspect up to " + BatchIntrospectionRequest.MAX_TOKENS
+          + " access tokens in one request; results are returned in request order"
+  )
+  public Mono<ResponseEntity<BatchIntrospectionResponse>> introspectBatch(
+      @Valid @RequestBody final BatchIntrospectionRequest request
+  ) {
+    return introspectionService.introspectAll(request.tokens())
+        .map(results -> ResponseEntity.ok(new BatchIntrospectionResponse(results)));
+  }
+}
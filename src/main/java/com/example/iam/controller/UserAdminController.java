@@ -0,0 +1,108 @@
+package com.example.iam.controller;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.iam.dto.UserImportRecord;
+import com.example.iam.dto.UserImportResponse;
+import com.example.iam.dto.UserSummary;
+import com.example.iam.service.UserExportService;
+import com.example.iam.service.UserImportService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Controller handling user administration endpoints, restricted to administrators.
+ */
+@RestController
+@RequestMapping("/api/v1/admin/users")
+@RequiredArgsConstructor
+@Tag(name = "User administration", description = "Bulk user management APIs")
+public final class UserAdminController {
+
+  /**
+   * Media type of CSV request bodies.
+   */
+  private static final String TEXT_CSV_VALUE = "text/csv";
+
+  /**
+   * Service importing users in bulk.
+   */
+  private final UserImportService userImportService;
+
+  /**
+   * Service exporting users.
+   */
+  private final UserExportService userExportService;
+
+  /**
+   * Imports users from an NDJSON body, one user object per line.
+   *
+   * @param records the streamed users
+   * @return the import outcome
+   */
+  @PostMapping(
+      value = "/import",
+      consumes = MediaType.APPLICATION_NDJSON_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  @Operation(
+      summary = "Import users from NDJSON",
+      description = "Create users in bulk; each user carries a raw password or a prefixed hash, and "
+          + "rows that cannot be imported are reported without failing the others"
+  )
+  public Mono<ResponseEntity<UserImportResponse>> importNdjson(
+      @RequestBody final Flux<UserImportRecord> records
+  ) {
+    return userImportService.importUsers(records)
+        .map(ResponseEntity::ok);
+  }
+
+  /**
+   * Imports users from a CSV body with a header line.
+   *
+   * @param lines the streamed CSV lines
+   * @return the import outcome
+   */
+  @PostMapping(
+      value = "/import",
+      consumes = TEXT_CSV_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  @Operation(
+      summary = "Import users from CSV",
+      description = "Create users in bulk from CSV with the columns email, first_name, last_name "
+          + "and password or password_hash, and optionally role"
+  )
+  public Mono<ResponseEntity<UserImportResponse>> importCsv(
+      @RequestBody final Flux<String> lines
+  ) {
+    return userImportService.importCsv(lines)
+        .map(ResponseEntity::ok);
+  }
+
+  /**
+   * Exports all users as NDJSON, one user object per line, streamed as fast as the client reads.
+   *
+   * @param includeDeleted whether soft-deleted users are included
+   * @return the streamed users, in id order
+   */
+  @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  @Operation(
+      summary = "Export users as NDJSON",
+      description = "Stream all users without their password hashes"
+  )
+  public Flux<UserSummary> export(
+      @RequestParam(defaultValue = "false") final boolean includeDeleted
+  ) {
+    return userExportService.exportUsers(includeDeleted);
+  }
+}
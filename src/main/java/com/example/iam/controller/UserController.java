@@ -0,0 +1,64 @@
+package com.example.iam.controller;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.iam.domain.user.UserRole;
+import com.example.iam.dto.UserPageResponse;
+import com.example.iam.service.UserListingService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * Controller handling user management endpoints.
+ */
+@RestController
+@RequestMapping("/api/v1/users")
+@RequiredArgsConstructor
+@Tag(name = "Users", description = "User management APIs")
+public final class UserController {
+
+  /**
+   * Default page size.
+   */
+  private static final String DEFAULT_PAGE_SIZE = "50";
+
+  /**
+   * Service listing users.
+   */
+  private final UserListingService userListingService;
+
+  /**
+   * Lists users, newest first, one page at a time. Administrators only.
+   *
+   * @param cursor  the cursor returned with the previous page, absent for the first page
+   * @param size    the page size
+   * @param deleted whether soft-deleted users are listed instead of live ones
+   * @param enabled the enabled flag users must have, absent for any
+   * @param role    the role users must have, absent for any
+   * @return the page of users, with the cursor of the next page if there is one
+   */
+  @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+  @Operation(
+      summary = "List users",
+      description = "List users newest first; pass the returned nextCursor to get the next page. "
+          + "Pages hold at most " + UserListingService.MAX_PAGE_SIZE + " users"
+  )
+  public Mono<ResponseEntity<UserPageResponse>> listUsers(
+      @RequestParam(required = false) final String cursor,
+      @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) final int size,
+      @RequestParam(defaultValue = "false") final boolean deleted,
+      @RequestParam(required = false) final Boolean enabled,
+      @RequestParam(required = false) final UserRole role
+  ) {
+    return userListingService.listUsers(cursor, size, deleted, enabled, role)
+        .map(ResponseEntity::ok);
+  }
+}
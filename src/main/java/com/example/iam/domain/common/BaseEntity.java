@@ -24,14 +24,15 @@ import lombok.Setter;
  * 1. All audit fields (created/updated timestamps and users) are automatically managed
  * 2. Optimistic locking is handled through the version field
  * 3. Soft delete functionality is available through the deleted flag
- * 4. UUID-based identification is provided
+ * 4. UUID-based identification is provided; new entities get a time-ordered UUIDv7 on insert
  */
 @Getter
 @Setter
 public abstract class BaseEntity implements Persistable<UUID> {
 
   /**
-   * Unique identifier for the entity.
+   * Unique identifier for the entity, assigned by {@link UuidV7Generator} when first saved.
+   * Rows inserted before that carry random version 4 ids, which remain valid.
    */
   @Id
   private UUID id;
@@ -41,7 +42,7 @@ public abstract class BaseEntity implements Persistable<UUID> {
    * Automatically managed by Spring Data's auditing support.
    */
   @CreatedDate
-  @Column("created_at")
+  @Column("date_created")
   private Instant createdAt;
 
   /**
@@ -49,7 +50,7 @@ public abstract class BaseEntity implements Persistable<UUID> {
    * Automatically managed by Spring Data's auditing support.
    */
   @LastModifiedDate
-  @Column("updated_at")
+  @Column("last_updated")
   private Instant updatedAt;
 
   /**
@@ -65,7 +66,7 @@ public abstract class BaseEntity implements Persistable<UUID> {
    * Automatically managed by Spring Data's auditing support.
    */
   @LastModifiedBy
-  @Column("updated_by")
+  @Column("last_modified_by")
   private String updatedBy;
 
   /**
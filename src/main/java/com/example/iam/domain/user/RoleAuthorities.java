@@ -0,0 +1,128 @@
+package com.example.iam.domain.user;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Interned authorities of every combination of {@link UserRole}s. The immutable authority list of
+ * each combination is built once, when the class is loaded, and shared by all principals holding
+ * that combination, so resolving the authorities of a user allocates nothing.
+ */
+public final class RoleAuthorities {
+
+  /**
+   * Prefix Spring Security expects in front of role names.
+   */
+  public static final String ROLE_PREFIX = "ROLE_";
+
+  /**
+   * Roles in ordinal order.
+   */
+  private static final UserRole[] ROLES = UserRole.values();
+
+  /**
+   * Authority of each role, by ordinal.
+   */
+  private static final GrantedAuthority[] AUTHORITIES = new GrantedAuthority[ROLES.length];
+
+  /**
+   * Authorities of each role combination, indexed by the bit mask of the role ordinals.
+   */
+  private static final List<List<GrantedAuthority>> BY_MASK = new ArrayList<>(1 << ROLES.length);
+
+  /**
+   * Role set of each role combination, indexed like {@link #BY_MASK}.
+   */
+  private static final List<Set<UserRole>> ROLES_BY_MASK = new ArrayList<>(1 << ROLES.length);
+
+  static {
+    for (UserRole role : ROLES) {
+      AUTHORITIES[role.ordinal()] = new SimpleGrantedAuthority(ROLE_PREFIX + role.name());
+    }
+    for (int mask = 0; mask < 1 << ROLES.length; mask++) {
+      List<GrantedAuthority> authorities = new ArrayList<>();
+      Set<UserRole> roles = EnumSet.noneOf(UserRole.class);
+      for (UserRole role : ROLES) {
+        if ((mask & 1 << role.ordinal()) != 0) {
+          authorities.add(AUTHORITIES[role.ordinal()]);
+          roles.add(role);
+        }
+      }
+      BY_MASK.add(List.copyOf(authorities));
+      ROLES_BY_MASK.add(Collections.unmodifiableSet(roles));
+    }
+  }
+
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private RoleAuthorities() {
+  }
+
+  /**
+   * Returns the shared authorities of a role combination.
+   *
+   * @param roles the roles, or null for none
+   * @return the immutable authorities, one per role, in role order
+   */
+  public static List<GrantedAuthority> of(final Collection<UserRole> roles) {
+    return BY_MASK.get(mask(roles));
+  }
+
+  /**
+   * Returns the shared, immutable set of a role combination.
+   *
+   * @param roles the roles, or null for none
+   * @return the immutable roles
+   */
+  public static Set<UserRole> intern(final Collection<UserRole> roles) {
+    return ROLES_BY_MASK.get(mask(roles));
+  }
+
+  /**
+   * Resolves authority names, as embedded in tokens. Names that all denote roles resolve to the
+   * shared authorities of that combination; any other name yields a new list.
+   *
+   * @param names the authority names
+   * @return the authorities
+   */
+  public static List<GrantedAuthority> fromNames(final Collection<?> names) {
+    int mask = 0;
+    for (Object name : names) {
+      UserRole role = role(String.valueOf(name));
+      if (role == null) {
+        return AuthorityUtils.createAuthorityList(
+            names.stream().map(String::valueOf).toArray(String[]::new));
+      }
+      mask |= 1 << role.ordinal();
+    }
+    return BY_MASK.get(mask);
+  }
+
+  private static int mask(final Collection<UserRole> roles) {
+    int mask = 0;
+    if (roles != null) {
+      for (UserRole role : roles) {
+        mask |= 1 << role.ordinal();
+      }
+    }
+    return mask;
+  }
+
+  private static UserRole role(final String authority) {
+    for (UserRole role : ROLES) {
+      if (authority.equals(AUTHORITIES[role.ordinal()].getAuthority())) {
+        return role;
+      }
+    }
+    return null;
+  }
+}
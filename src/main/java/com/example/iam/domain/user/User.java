@@ -1,11 +1,11 @@
 package com.example.iam.domain.user;
 
 import java.util.Collection;
-import java.util.Collections;
+import java.util.Set;
 
+import org.springframework.data.annotation.ReadOnlyProperty;
 import org.springframework.data.relational.core.mapping.Table;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import com.example.iam.domain.common.BaseEntity;
@@ -45,9 +45,11 @@ public final class User extends BaseEntity implements UserDetails {
   private String password;
 
   /**
-   * User's role in the system.
+   * User's roles in the system. They live in {@code user_roles}: queries returning users select
+   * them as a {@code roles} array alongside the user, and inserts write them explicitly.
    */
-  private UserRole role;
+  @ReadOnlyProperty
+  private Set<UserRole> roles;
 
   /**
    * Flag indicating if the account is enabled.
@@ -69,11 +71,23 @@ public final class User extends BaseEntity implements UserDetails {
    */
   private boolean credentialsNonExpired;
 
+  /**
+   * Returns the user's roles.
+   *
+   * @return the shared, immutable set of the roles, empty if none were loaded
+   */
+  public Set<UserRole> getRoles() {
+    return RoleAuthorities.intern(roles);
+  }
+
+  /**
+   * Returns the authorities of the user's roles, shared with every user holding the same roles.
+   *
+   * @return the immutable authorities
+   */
   @Override
   public Collection<? extends GrantedAuthority> getAuthorities() {
-    return Collections.singletonList(
-        new SimpleGrantedAuthority("ROLE_" + role.toString())
-    );
+    return RoleAuthorities.of(roles);
   }
 
   @Override
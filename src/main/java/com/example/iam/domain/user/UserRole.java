@@ -18,7 +18,12 @@ public enum UserRole {
   /**
    * Regular user role with limited access.
    */
-  USER("User");
+  USER("User"),
+
+  /**
+   * Role of API gateways and resource servers allowed to introspect tokens.
+   */
+  INTROSPECTOR("Token introspection client");
 
   /**
    * Human-readable name of the role.
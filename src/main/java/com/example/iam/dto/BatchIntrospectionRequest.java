@@ -0,0 +1,24 @@
+package com.example.iam.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Record representing a request to introspect several tokens at once.
+ *
+ * @param tokens the tokens to introspect
+ */
+public record BatchIntrospectionRequest(
+    @NotEmpty(message = "Tokens are required")
+    @Size(max = BatchIntrospectionRequest.MAX_TOKENS,
+        message = "At most " + BatchIntrospectionRequest.MAX_TOKENS + " tokens per request")
+    List<String> tokens
+) {
+
+  /**
+   * Maximum number of tokens per request.
+   */
+  public static final int MAX_TOKENS = 100;
+}
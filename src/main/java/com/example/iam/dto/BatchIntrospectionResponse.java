@@ -0,0 +1,14 @@
+package com.example.iam.dto;
+
+import java.util.List;
+
+/**
+ * Record representing the introspection results of a batch, in the order of the requested tokens.
+ *
+ * @param results one result per requested token
+ */
+public record BatchIntrospectionResponse(
+    List<IntrospectionResponse> results
+) {
+
+}
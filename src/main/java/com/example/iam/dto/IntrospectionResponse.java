@@ -0,0 +1,36 @@
+package com.example.iam.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Record representing the RFC 7662 introspection result of a single token. Inactive tokens only
+ * carry {@code active=false}.
+ *
+ * @param active      whether the token is currently valid
+ * @param tokenType   the token type, always {@code Bearer} for active tokens
+ * @param tokenId     the token id ({@code jti})
+ * @param subject     the token subject (the user's email)
+ * @param issuedAt    the issuance time in seconds since the epoch
+ * @param expiresAt   the expiration time in seconds since the epoch
+ * @param authorities the authorities granted to the token's user
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record IntrospectionResponse(
+    boolean active,
+    @JsonProperty("token_type") String tokenType,
+    @JsonProperty("jti") String tokenId,
+    @JsonProperty("sub") String subject,
+    @JsonProperty("iat") Long issuedAt,
+    @JsonProperty("exp") Long expiresAt,
+    List<String> authorities
+) {
+
+  /**
+   * Shared result of every inactive token.
+   */
+  public static final IntrospectionResponse INACTIVE =
+      new IntrospectionResponse(false, null, null, null, null, null, null);
+}
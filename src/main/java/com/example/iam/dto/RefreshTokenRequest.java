@@ -0,0 +1,12 @@
+package com.example.iam.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * Record representing a request to exchange a refresh token for a new token pair.
+ *
+ * @param refreshToken the refresh token
+ */
+public record RefreshTokenRequest(
+    @NotBlank(message = "Refresh token is required") String refreshToken
+) { }
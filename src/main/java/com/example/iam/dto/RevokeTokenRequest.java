@@ -0,0 +1,12 @@
+package com.example.iam.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * Record representing a request to revoke an access or refresh token.
+ *
+ * @param token the token to revoke
+ */
+public record RevokeTokenRequest(
+    @NotBlank(message = "Token is required") String token
+) { }
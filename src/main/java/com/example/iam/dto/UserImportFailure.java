@@ -0,0 +1,16 @@
+package com.example.iam.dto;
+
+/**
+ * Record representing a user of a bulk import that was not created.
+ *
+ * @param line   the line of the user in the request body, starting at 1
+ * @param email  the user's email, if it could be read
+ * @param reason why the user was not created
+ */
+public record UserImportFailure(
+    long line,
+    String email,
+    String reason
+) {
+
+}
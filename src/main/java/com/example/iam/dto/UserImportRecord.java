@@ -0,0 +1,49 @@
+package com.example.iam.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Record representing one user of a bulk import. Each user carries either a raw password, which is
+ * hashed during the import, or a hash produced by a supported algorithm, with its {@code {id}}
+ * prefix.
+ *
+ * @param email        the user's email
+ * @param firstName    the user's first name
+ * @param lastName     the user's last name
+ * @param password     the raw password, or null if a hash is given
+ * @param passwordHash the password hash, or null if a raw password is given
+ * @param role         the user's roles separated by {@code |}, or null for {@code USER}
+ */
+public record UserImportRecord(
+    @NotBlank(message = "Email is required")
+    @Email(message = "Invalid email format")
+    @Size(max = MAX_LENGTH, message = "Email must be at most " + MAX_LENGTH + " characters long")
+    String email,
+
+    @NotBlank(message = "First name is required")
+    @Size(max = MAX_LENGTH, message = "First name must be at most " + MAX_LENGTH
+        + " characters long")
+    String firstName,
+
+    @NotBlank(message = "Last name is required")
+    @Size(max = MAX_LENGTH, message = "Last name must be at most " + MAX_LENGTH
+        + " characters long")
+    String lastName,
+
+    @Size(min = 8, message = "Password must be at least 8 characters long")
+    String password,
+
+    @Size(max = MAX_LENGTH, message = "Password hash must be at most " + MAX_LENGTH
+        + " characters long")
+    String passwordHash,
+
+    String role
+) {
+
+  /**
+   * Maximum length of the text columns.
+   */
+  public static final int MAX_LENGTH = 255;
+}
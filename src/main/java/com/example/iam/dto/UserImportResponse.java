@@ -0,0 +1,19 @@
+package com.example.iam.dto;
+
+import java.util.List;
+
+/**
+ * Record representing the outcome of a bulk import. Only the first failures are listed; {@code
+ * failed} counts all of them.
+ *
+ * @param imported the number of users created
+ * @param failed   the number of users not created
+ * @param failures the first failures, in request order
+ */
+public record UserImportResponse(
+    long imported,
+    long failed,
+    List<UserImportFailure> failures
+) {
+
+}
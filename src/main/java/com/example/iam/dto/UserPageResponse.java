@@ -0,0 +1,19 @@
+package com.example.iam.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Record representing one page of a user listing.
+ *
+ * @param users      the users of the page
+ * @param nextCursor the opaque cursor of the next page, or null on the last page
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record UserPageResponse(
+    List<UserSummary> users,
+    String nextCursor
+) {
+
+}
@@ -0,0 +1,39 @@
+package com.example.iam.dto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Record representing a user as returned by listings and exports. Password hashes are never
+ * included.
+ *
+ * @param id                    the user's id
+ * @param email                 the user's email
+ * @param firstName             the user's first name
+ * @param lastName              the user's last name
+ * @param roles                 the user's roles
+ * @param enabled               whether the account is enabled
+ * @param accountNonExpired     whether the account is not expired
+ * @param accountNonLocked      whether the account is not locked
+ * @param credentialsNonExpired whether the credentials are not expired
+ * @param deleted               whether the user is soft deleted
+ * @param dateCreated           when the user was created
+ * @param lastUpdated           when the user was last modified
+ */
+public record UserSummary(
+    UUID id,
+    String email,
+    String firstName,
+    String lastName,
+    List<String> roles,
+    boolean enabled,
+    boolean accountNonExpired,
+    boolean accountNonLocked,
+    boolean credentialsNonExpired,
+    boolean deleted,
+    Instant dateCreated,
+    Instant lastUpdated
+) {
+
+}
@@ -2,6 +2,7 @@ package com.example.iam.exception;
 
 import java.util.List;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -12,6 +13,7 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.bind.support.WebExchangeBindException;
 import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebInputException;
 
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
@@ -67,6 +69,22 @@ public class GlobalExceptionHandler {
     return createErrorResponse(exchange, HttpStatus.UNAUTHORIZED, "Invalid email or password");
   }
 
+  /**
+   * Handles invalid token exceptions.
+   * Can be overridden to customize the error response or add additional processing.
+   *
+   * @param ex the InvalidTokenException
+   * @param exchange the current server exchange
+   * @return a Mono containing the error response
+   */
+  @ExceptionHandler(InvalidTokenException.class)
+  @ResponseStatus(HttpStatus.UNAUTHORIZED)
+  public Mono<ApiError> handleInvalidToken(final InvalidTokenException ex,
+      final ServerWebExchange exchange) {
+    log.warn("Invalid token error: {}", ex.getMessage());
+    return createErrorResponse(exchange, HttpStatus.UNAUTHORIZED, ex.getMessage());
+  }
+
   /**
    * Handles access denied exceptions.
    * Can be overridden to customize the error response or add additional processing.
@@ -99,6 +117,25 @@ public class GlobalExceptionHandler {
     return createErrorResponse(exchange, HttpStatus.UNAUTHORIZED, "Authentication failed");
   }
 
+  /**
+   * Handles requests rejected because a bounded resource is saturated.
+   * Can be overridden to customize the error response or add additional processing.
+   *
+   * @param ex the ServiceOverloadedException
+   * @param exchange the current server exchange
+   * @return a Mono containing the error response
+   */
+  @ExceptionHandler(ServiceOverloadedException.class)
+  @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+  public Mono<ApiError> handleServiceOverloaded(final ServiceOverloadedException ex,
+      final ServerWebExchange exchange) {
+    log.warn("Service overloaded: {}", ex.getMessage());
+    exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER,
+        String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())));
+    return createErrorResponse(exchange, HttpStatus.SERVICE_UNAVAILABLE,
+        "Service is busy, please retry later");
+  }
+
   /**
    * Handles validation exceptions.
    * Can be overridden to customize the error response or add additional processing.
@@ -121,6 +158,23 @@ public class GlobalExceptionHandler {
     return createErrorResponse(exchange, HttpStatus.BAD_REQUEST, "Validation failed", errors);
   }
 
+  /**
+   * Handles request bodies that cannot be read, such as malformed JSON or CSV.
+   * Can be overridden to customize the error response or add additional processing.
+   *
+   * @param ex the ServerWebInputException
+   * @param exchange the current server exchange
+   * @return a Mono containing the error response
+   */
+  @ExceptionHandler(ServerWebInputException.class)
+  @ResponseStatus(HttpStatus.BAD_REQUEST)
+  public Mono<ApiError> handleInvalidInput(final ServerWebInputException ex,
+      final ServerWebExchange exchange) {
+    log.warn("Invalid request input: {}", ex.getReason());
+    return createErrorResponse(exchange, HttpStatus.BAD_REQUEST,
+        ex.getReason() != null ? ex.getReason() : "Invalid request");
+  }
+
   /**
    * Handles constraint violation exceptions.
    * Can be overridden to customize the error response or add additional processing.
@@ -0,0 +1,14 @@
+package com.example.iam.exception;
+
+/**
+ * Exception thrown when a presented token is malformed, expired, revoked or of the wrong type.
+ */
+public class InvalidTokenException extends RuntimeException {
+
+  /**
+   * Constructs a new InvalidTokenException.
+   */
+  public InvalidTokenException() {
+    super("Invalid or expired token");
+  }
+}
@@ -0,0 +1,35 @@
+package com.example.iam.exception;
+
+import java.time.Duration;
+
+/**
+ * Exception thrown when a bounded resource is saturated and the request is rejected instead of
+ * queued.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+  /**
+   * Suggested delay before the client retries.
+   */
+  private final Duration retryAfter;
+
+  /**
+   * Constructs a new ServiceOverloadedException.
+   *
+   * @param message    the error message
+   * @param retryAfter the suggested delay before retrying
+   */
+  public ServiceOverloadedException(final String message, final Duration retryAfter) {
+    super(message);
+    this.retryAfter = retryAfter;
+  }
+
+  /**
+   * Returns the suggested delay before the client retries.
+   *
+   * @return the retry delay
+   */
+  public Duration getRetryAfter() {
+    return retryAfter;
+  }
+}
@@ -1,18 +1,63 @@
 package com.example.iam.repository;
 
+import java.util.Collection;
 import java.util.UUID;
 
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.iam.domain.user.User;
+import com.example.iam.routing.ReplicaRead;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Repository
-public interface UserRepository extends R2dbcRepository<User, UUID> {
+public interface UserRepository extends R2dbcRepository<User, UUID>, UserRepositoryCustom {
 
-  Mono<User> findByEmail(String email);
+  /**
+   * Selects users together with their roles, aggregated from {@code user_roles} in the same
+   * statement.
+   */
+  String SELECT_WITH_ROLES = "SELECT u.*, ARRAY(SELECT r.role FROM user_roles r WHERE r.user_id = u.id)"
+      + " AS roles FROM users u ";
 
-  Mono<Boolean> existsByEmail(String email);
+  /**
+   * Finds the live user with an email, with its roles. Soft-deleted users are ignored, which also
+   * lets the lookup use the partial unique index on email. The lookup is served by a read replica
+   * and retried on the primary if the replica does not know the user yet.
+   *
+   * @param email the email
+   * @return a mono emitting the user, or empty if there is no live user with that email
+   */
+  @ReplicaRead(retryOnPrimaryIfEmpty = true)
+  @Query(SELECT_WITH_ROLES + "WHERE u.email = :email AND NOT u.deleted")
+  Mono<User> findByEmail(@Param("email") String email);
+
+  /**
+   * Finds the live users with any of several emails, with their roles.
+   *
+   * @param emails the emails
+   * @return a flux emitting the users found, in no particular order
+   */
+  @ReplicaRead
+  @Query(SELECT_WITH_ROLES + "WHERE u.email IN (:emails) AND NOT u.deleted")
+  Flux<User> findAllByEmailIn(@Param("emails") Collection<String> emails);
+
+  /**
+   * Replaces a user's password hash if it still equals the expected one. The entity version is
+   * left untouched, since the password itself did not change.
+   *
+   * @param id          the user's id
+   * @param oldPassword the hash the new one replaces
+   * @param newPassword the new hash
+   * @return the number of updated rows
+   */
+  @Modifying
+  @Query("UPDATE users SET password = :newPassword WHERE id = :id AND password = :oldPassword")
+  Mono<Integer> updatePassword(@Param("id") UUID id, @Param("oldPassword") String oldPassword,
+      @Param("newPassword") String newPassword);
 }
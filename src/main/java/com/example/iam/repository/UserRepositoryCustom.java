@@ -0,0 +1,68 @@
+package com.example.iam.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import com.example.iam.domain.user.User;
+import com.example.iam.domain.user.UserRole;
+import com.example.iam.dto.UserSummary;
+import com.example.iam.routing.ReplicaRead;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * User queries written against {@code DatabaseClient} rather than derived by Spring Data.
+ */
+public interface UserRepositoryCustom {
+
+  /**
+   * Inserts a new user together with its role in a single statement, unless a live user has the
+   * same email. Concurrent inserts of the same email are settled by the unique index, so exactly
+   * one of them succeeds.
+   *
+   * @param user the user to insert, with its id already assigned
+   * @return a mono emitting the stored user, or empty if a live user with the same email exists
+   */
+  Mono<User> insertIfAbsent(User user);
+
+  /**
+   * Inserts many new users together with their roles in one transaction, skipping those whose email
+   * is taken by a live user, including an earlier user of the same list. Rows are streamed with
+   * PostgreSQL's {@code COPY} into a staging table and merged from there.
+   *
+   * @param users the users to insert, with their ids already assigned
+   * @return a flux emitting the ids of the users that were not inserted
+   */
+  Flux<UUID> insertAllIfAbsent(List<User> users);
+
+  /**
+   * Reads the next users of an export in id order, without their password hashes. Each call is a
+   * short, independent query, so an export never holds a transaction or a cursor open.
+   *
+   * @param after          the id of the last user already exported, or null to start
+   * @param includeDeleted whether soft-deleted users are included
+   * @param limit          the maximum number of users to read
+   * @return a flux emitting the users following {@code after}
+   */
+  @ReplicaRead
+  Flux<UserSummary> findExportChunk(UUID after, boolean includeDeleted, int limit);
+
+  /**
+   * Reads a page of users, newest first, without their password hashes. Pages are delimited by the
+   * {@code (date_created, id)} of the last user of the previous page rather than by an offset, so
+   * every page costs the same index range scan however deep it is.
+   *
+   * @param deleted       whether soft-deleted or live users are listed
+   * @param enabled       the enabled flag users must have, or null for any
+   * @param role          the role users must have, or null for any
+   * @param beforeCreated the creation time of the last user of the previous page, or null
+   * @param beforeId      the id of the last user of the previous page, or null
+   * @param limit         the maximum number of users to read
+   * @return a flux emitting the users of the page
+   */
+  @ReplicaRead
+  Flux<UserSummary> findPage(boolean deleted, Boolean enabled, UserRole role,
+      Instant beforeCreated, UUID beforeId, int limit);
+}
@@ -0,0 +1,296 @@
+package com.example.iam.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.r2dbc.convert.R2dbcConverter;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.example.iam.domain.user.User;
+import com.example.iam.domain.user.UserRole;
+import com.example.iam.dto.UserSummary;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.Readable;
+import io.r2dbc.spi.Wrapped;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link UserRepositoryCustom} implementation, picked up by Spring Data as a fragment of
+ * {@link UserRepository}.
+ */
+@RequiredArgsConstructor
+public final class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+  /**
+   * Inserts the user and, only if that succeeded, its roles. Both happen in one statement and one
+   * round trip; an email conflict leaves both tables untouched and returns no row.
+   */
+  private static final String INSERT_IF_ABSENT = """
+      WITH inserted AS (
+        INSERT INTO users (id, email, password, first_name, last_name, enabled,
+                           account_non_expired, account_non_locked, credentials_non_expired,
+                           date_created, last_updated, version, deleted)
+        VALUES (:id, :email, :password, :firstName, :lastName, :enabled,
+                :accountNonExpired, :accountNonLocked, :credentialsNonExpired,
+                now(), now(), 0, FALSE)
+        ON CONFLICT (email) WHERE NOT deleted DO NOTHING
+        RETURNING *
+      ), inserted_roles AS (
+        INSERT INTO user_roles (user_id, role)
+        SELECT inserted.id, role FROM inserted, unnest(CAST(:roles AS VARCHAR(50)[])) AS role
+      )
+      SELECT * FROM inserted
+      """;
+
+  /**
+   * Staging table receiving the rows of a bulk insert, dropped when the transaction ends.
+   */
+  private static final String CREATE_STAGING_TABLE = """
+      CREATE TEMPORARY TABLE user_import_staging (
+        id UUID NOT NULL,
+        email VARCHAR(255) NOT NULL,
+        password VARCHAR(255) NOT NULL,
+        first_name VARCHAR(255) NOT NULL,
+        last_name VARCHAR(255) NOT NULL,
+        roles VARCHAR(50)[] NOT NULL
+      ) ON COMMIT DROP
+      """;
+
+  /**
+   * Streams rows into the staging table, in the text format written by {@link #appendCopyRow}.
+   */
+  private static final String COPY_STAGING =
+      "COPY user_import_staging (id, email, password, first_name, last_name, roles) FROM STDIN";
+
+  /**
+   * Moves the staged users and their roles into place, skipping taken emails, and returns the ids
+   * of the skipped users.
+   */
+  private static final String MERGE_STAGING = """
+      WITH inserted AS (
+        INSERT INTO users (id, email, password, first_name, last_name, enabled,
+                           account_non_expired, account_non_locked, credentials_non_expired,
+                           date_created, last_updated, version, deleted)
+        SELECT id, email, password, first_name, last_name, TRUE, TRUE, TRUE, TRUE,
+               now(), now(), 0, FALSE
+        FROM user_import_staging
+        ON CONFLICT (email) WHERE NOT deleted DO NOTHING
+        RETURNING id
+      ), inserted_roles AS (
+        INSERT INTO user_roles (user_id, role)
+        SELECT staged.id, unnest(staged.roles)
+        FROM user_import_staging staged JOIN inserted USING (id)
+      )
+      SELECT staged.id
+      FROM user_import_staging staged
+      WHERE NOT EXISTS (SELECT 1 FROM inserted WHERE inserted.id = staged.id)
+      """;
+
+  /**
+   * Columns of a user summary, leaving out the password hash.
+   */
+  private static final String SUMMARY_SELECT = """
+      SELECT u.id, u.email, u.first_name, u.last_name, u.enabled, u.account_non_expired,
+             u.account_non_locked, u.credentials_non_expired, u.deleted, u.date_created,
+             u.last_updated,
+             ARRAY(SELECT r.role FROM user_roles r WHERE r.user_id = u.id ORDER BY r.role) AS roles
+      FROM users u
+      """;
+
+  /**
+   * Estimated size in bytes of one staged row, used to presize the copy buffer.
+   */
+  private static final int ESTIMATED_COPY_ROW_BYTES = 256;
+
+  /**
+   * Client running the statement.
+   */
+  private final DatabaseClient databaseClient;
+
+  /**
+   * Converter mapping the returned row onto the entity.
+   */
+  private final R2dbcConverter converter;
+
+  /**
+   * Operator running bulk inserts in a transaction.
+   */
+  private final TransactionalOperator transactionalOperator;
+
+  @Override
+  public Mono<User> insertIfAbsent(final User user) {
+    return databaseClient.sql(INSERT_IF_ABSENT)
+        .bind("id", user.getId())
+        .bind("email", user.getEmail())
+        .bind("password", user.getPassword())
+        .bind("firstName", user.getFirstName())
+        .bind("lastName", user.getLastName())
+        .bind("enabled", user.isEnabled())
+        .bind("accountNonExpired", user.isAccountNonExpired())
+        .bind("accountNonLocked", user.isAccountNonLocked())
+        .bind("credentialsNonExpired", user.isCredentialsNonExpired())
+        .bind("roles", roleNames(user))
+        .map((row, metadata) -> converter.read(User.class, row, metadata))
+        .one()
+        .doOnNext(stored -> stored.setRoles(user.getRoles()));
+  }
+
+  @Override
+  public Flux<UUID> insertAllIfAbsent(final List<User> users) {
+    if (users.isEmpty()) {
+      return Flux.empty();
+    }
+    return databaseClient.sql(CREATE_STAGING_TABLE)
+        .then()
+        .then(databaseClient.inConnection(connection -> postgresql(connection)
+            .copyIn(COPY_STAGING, Mono.fromSupplier(() -> copyData(users)))))
+        .thenMany(databaseClient.sql(MERGE_STAGING)
+            .map(row -> row.get("id", UUID.class))
+            .all())
+        .as(transactionalOperator::transactional);
+  }
+
+  /**
+   * Unwraps the PostgreSQL connection behind the pooled, transaction-bound one.
+   *
+   * @param connection the connection handed out by the database client
+   * @return the PostgreSQL connection
+   */
+  private static PostgresqlConnection postgresql(final Connection connection) {
+    Object current = connection;
+    while (!(current instanceof PostgresqlConnection) && current instanceof Wrapped<?> wrapped) {
+      current = wrapped.unwrap();
+    }
+    if (current instanceof PostgresqlConnection postgresqlConnection) {
+      return postgresqlConnection;
+    }
+    throw new IllegalStateException("Bulk inserts require a PostgreSQL connection");
+  }
+
+  private static ByteBuf copyData(final List<User> users) {
+    StringBuilder data = new StringBuilder(users.size() * ESTIMATED_COPY_ROW_BYTES);
+    for (User user : users) {
+      appendCopyRow(data, user);
+    }
+    return Unpooled.wrappedBuffer(data.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Appends a user as a line of PostgreSQL's text {@code COPY} format.
+   *
+   * @param data the buffer to append to
+   * @param user the user
+   */
+  private static void appendCopyRow(final StringBuilder data, final User user) {
+    data.append(user.getId()).append('\t');
+    appendCopyValue(data, user.getEmail()).append('\t');
+    appendCopyValue(data, user.getPassword()).append('\t');
+    appendCopyValue(data, user.getFirstName()).append('\t');
+    appendCopyValue(data, user.getLastName()).append('\t');
+    data.append('{').append(String.join(",", roleNames(user))).append("}\n");
+  }
+
+  private static String[] roleNames(final User user) {
+    return user.getRoles().stream().map(UserRole::name).toArray(String[]::new);
+  }
+
+  private static StringBuilder appendCopyValue(final StringBuilder data, final String value) {
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '\\' -> data.append("\\\\");
+        case '\t' -> data.append("\\t");
+        case '\n' -> data.append("\\n");
+        case '\r' -> data.append("\\r");
+        default -> data.append(c);
+      }
+    }
+    return data;
+  }
+
+  @Override
+  public Flux<UserSummary> findExportChunk(
+      final UUID after,
+      final boolean includeDeleted,
+      final int limit) {
+    List<String> conditions = new ArrayList<>(2);
+    if (after != null) {
+      conditions.add("u.id > :after");
+    }
+    if (!includeDeleted) {
+      conditions.add("NOT u.deleted");
+    }
+    String where = conditions.isEmpty() ? "" : "WHERE " + String.join(" AND ", conditions) + "\n";
+    DatabaseClient.GenericExecuteSpec spec = databaseClient
+        .sql(SUMMARY_SELECT + where + "ORDER BY u.id\nLIMIT :limit")
+        .bind("limit", limit);
+    if (after != null) {
+      spec = spec.bind("after", after);
+    }
+    return spec.map(UserRepositoryCustomImpl::toSummary)
+        .all();
+  }
+
+  @Override
+  public Flux<UserSummary> findPage(
+      final boolean deleted,
+      final Boolean enabled,
+      final UserRole role,
+      final Instant beforeCreated,
+      final UUID beforeId,
+      final int limit) {
+    StringBuilder sql = new StringBuilder(SUMMARY_SELECT).append("WHERE u.deleted = :deleted\n");
+    if (enabled != null) {
+      sql.append("AND u.enabled = :enabled\n");
+    }
+    if (role != null) {
+      sql.append("AND EXISTS (SELECT 1 FROM user_roles r WHERE r.user_id = u.id AND r.role = :role)\n");
+    }
+    boolean hasCursor = beforeCreated != null && beforeId != null;
+    if (hasCursor) {
+      sql.append("AND (u.date_created, u.id) < (:beforeCreated, :beforeId)\n");
+    }
+    sql.append("ORDER BY u.date_created DESC, u.id DESC\nLIMIT :limit");
+
+    DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString())
+        .bind("deleted", deleted)
+        .bind("limit", limit);
+    if (enabled != null) {
+      spec = spec.bind("enabled", enabled);
+    }
+    if (role != null) {
+      spec = spec.bind("role", role.name());
+    }
+    if (hasCursor) {
+      spec = spec.bind("beforeCreated", beforeCreated).bind("beforeId", beforeId);
+    }
+    return spec.map(UserRepositoryCustomImpl::toSummary)
+        .all();
+  }
+
+  private static UserSummary toSummary(final Readable row) {
+    return new UserSummary(
+        row.get("id", UUID.class),
+        row.get("email", String.class),
+        row.get("first_name", String.class),
+        row.get("last_name", String.class),
+        List.of(row.get("roles", String[].class)),
+        Boolean.TRUE.equals(row.get("enabled", Boolean.class)),
+        Boolean.TRUE.equals(row.get("account_non_expired", Boolean.class)),
+        Boolean.TRUE.equals(row.get("account_non_locked", Boolean.class)),
+        Boolean.TRUE.equals(row.get("credentials_non_expired", Boolean.class)),
+        Boolean.TRUE.equals(row.get("deleted", Boolean.class)),
+        row.get("date_created", Instant.class),
+        row.get("last_updated", Instant.class));
+  }
+}
@@ -0,0 +1,72 @@
+package com.example.iam.routing;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+/**
+ * Database a reactive pipeline runs its statements on. The route travels in the Reactor context,
+ * and is only consulted when a connection is acquired: statements of a transaction always run on
+ * the connection the transaction started with. Pipelines without a route use the primary.
+ */
+public enum DatabaseRoute {
+
+  /**
+   * The primary database, which receives all writes.
+   */
+  PRIMARY,
+
+  /**
+   * A read replica, or the primary if no healthy replica is available.
+   */
+  REPLICA;
+
+  /**
+   * Reactor context key holding the route.
+   */
+  private static final String CONTEXT_KEY = DatabaseRoute.class.getName();
+
+  /**
+   * Runs a pipeline on a read replica. Wrapping a read-only transaction in this sends the whole
+   * transaction to the replica.
+   *
+   * @param <T>       the element type
+   * @param publisher the pipeline, whose statements must all be reads
+   * @return the routed pipeline
+   */
+  public static <T> Mono<T> onReplica(final Mono<T> publisher) {
+    return publisher.contextWrite(context -> context.put(CONTEXT_KEY, REPLICA));
+  }
+
+  /**
+   * Runs a pipeline on a read replica.
+   *
+   * @param <T>       the element type
+   * @param publisher the pipeline, whose statements must all be reads
+   * @return the routed pipeline
+   */
+  public static <T> Flux<T> onReplica(final Flux<T> publisher) {
+    return publisher.contextWrite(context -> context.put(CONTEXT_KEY, REPLICA));
+  }
+
+  /**
+   * Runs a pipeline on the primary, even inside a pipeline routed to a replica.
+   *
+   * @param <T>       the element type
+   * @param publisher the pipeline
+   * @return the routed pipeline
+   */
+  public static <T> Mono<T> onPrimary(final Mono<T> publisher) {
+    return publisher.contextWrite(context -> context.put(CONTEXT_KEY, PRIMARY));
+  }
+
+  /**
+   * Returns the route of a pipeline.
+   *
+   * @param context the pipeline's context
+   * @return the route, {@link #PRIMARY} if none was set
+   */
+  static DatabaseRoute of(final ContextView context) {
+    return context.getOrDefault(CONTEXT_KEY, PRIMARY);
+  }
+}
@@ -0,0 +1,305 @@
+package com.example.iam.routing;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.actuate.metrics.r2dbc.ConnectionPoolMetrics;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.PropertyMapper;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.pool.PoolMetrics;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Option;
+import io.r2dbc.spi.ValidationDepth;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Connection pools of the read replicas, with their health. Each replica gets its own pool, sized
+ * and configured like the primary's from {@code spring.r2dbc}. A periodic check validates one
+ * connection of each replica; replicas failing it receive no reads until a later check succeeds.
+ *
+ * <p>The pools are warmed up and checked once before the application reports itself ready.
+ */
+@Slf4j
+@Component
+public final class ReadReplicas implements ApplicationRunner {
+
+  /**
+   * Prefix of the replicas' pool names.
+   */
+  private static final String NAME_PREFIX = "replica-";
+
+  /**
+   * Replicas in configuration order.
+   */
+  private final List<Replica> replicas = new ArrayList<>();
+
+  /**
+   * Strategy choosing the replica serving a read.
+   */
+  private final ReplicaSelection selection;
+
+  /**
+   * Delay between two health checks.
+   */
+  private final Duration healthCheckInterval;
+
+  /**
+   * How long a health check may take before the replica counts as down.
+   */
+  private final Duration healthCheckTimeout;
+
+  /**
+   * How long the warm-up may delay readiness.
+   */
+  private final Duration warmUpTimeout;
+
+  /**
+   * Position of the next round-robin selection.
+   */
+  private final AtomicInteger next = new AtomicInteger();
+
+  /**
+   * Subscription to the health check schedule.
+   */
+  private Disposable healthChecks;
+
+  /**
+   * Creates the replica pools.
+   *
+   * @param r2dbcProperties     the R2DBC properties of the primary, whose credentials, options and
+   *                            pool settings the replicas share
+   * @param meterRegistry       the registry receiving the pool and health metrics
+   * @param urls                the comma-separated R2DBC URLs of the replicas, empty for none
+   * @param selection           the selection strategy, {@code round-robin} or
+   *                            {@code least-pending}
+   * @param healthCheckInterval the delay between two health checks
+   * @param healthCheckTimeout  how long a health check may take
+   * @param warmUpTimeout       how long the warm-up may delay readiness
+   */
+  public ReadReplicas(
+      final R2dbcProperties r2dbcProperties,
+      final MeterRegistry meterRegistry,
+      @Value("${application.database.replicas.urls:}") final String urls,
+      @Value("${application.database.replicas.selection:round-robin}") final String selection,
+      @Value("${application.database.replicas.health-check-interval:5s}")
+      final Duration healthCheckInterval,
+      @Value("${application.database.replicas.health-check-timeout:2s}")
+      final Duration healthCheckTimeout,
+      @Value("${application.database.pool.warm-up-timeout:30s}") final Duration warmUpTimeout) {
+    this.selection = ReplicaSelection.parse(selection);
+    this.healthCheckInterval = healthCheckInterval;
+    this.healthCheckTimeout = healthCheckTimeout;
+    this.warmUpTimeout = warmUpTimeout;
+    for (String url : StringUtils.commaDelimitedListToSet(urls)) {
+      if (StringUtils.hasText(url)) {
+        String name = NAME_PREFIX + replicas.size();
+        Replica replica = new Replica(name, pool(name, url.trim(), r2dbcProperties));
+        new ConnectionPoolMetrics(replica.pool, name, Tags.empty()).bindTo(meterRegistry);
+        Gauge.builder("iam.database.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+            .description("Whether the replica passed its last health check")
+            .tag("name", name)
+            .register(meterRegistry);
+        replicas.add(replica);
+      }
+    }
+  }
+
+  /**
+   * Tells whether any replica is configured.
+   *
+   * @return false if all traffic goes to the primary
+   */
+  public boolean isEnabled() {
+    return !replicas.isEmpty();
+  }
+
+  /**
+   * Returns the pools of the replicas by name.
+   *
+   * @return the pools, in configuration order
+   */
+  Map<String, ConnectionFactory> pools() {
+    Map<String, ConnectionFactory> pools = new LinkedHashMap<>();
+    replicas.forEach(replica -> pools.put(replica.name, replica.pool));
+    return pools;
+  }
+
+  /**
+   * Chooses the replica serving a read.
+   *
+   * @return the name of a healthy replica, or null if none is healthy
+   */
+  String select() {
+    int count = replicas.size();
+    if (count == 0) {
+      return null;
+    }
+    int start = Math.floorMod(next.getAndIncrement(), count);
+    Replica best = null;
+    for (int i = 0; i < count; i++) {
+      Replica replica = replicas.get((start + i) % count);
+      if (!replica.healthy) {
+        continue;
+      }
+      if (selection == ReplicaSelection.ROUND_ROBIN) {
+        return replica.name;
+      }
+      if (best == null || replica.load() < best.load()) {
+        best = replica;
+      }
+    }
+    return best != null ? best.name : null;
+  }
+
+  /**
+   * Warms up the replica pools and checks them once, before readiness turns to accepting traffic.
+   * Replicas that cannot be reached are left out until a later check succeeds.
+   *
+   * @param args the application arguments
+   */
+  @Override
+  public void run(final ApplicationArguments args) {
+    if (replicas.isEmpty()) {
+      return;
+    }
+    try {
+      Flux.fromIterable(replicas)
+          .flatMap(replica -> replica.pool.warmup()
+              .onErrorResume(e -> Mono.empty())
+              .then(check(replica)))
+          .then()
+          .block(warmUpTimeout);
+    } catch (RuntimeException e) {
+      log.warn("Read replica warm-up failed: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Schedules the periodic health checks.
+   */
+  @PostConstruct
+  public void start() {
+    if (replicas.isEmpty()) {
+      return;
+    }
+    healthChecks = Flux.interval(healthCheckInterval, healthCheckInterval)
+        .concatMap(tick -> Flux.fromIterable(replicas).flatMap(this::check).then())
+        .subscribe();
+  }
+
+  /**
+   * Stops the health checks and closes the replica pools.
+   */
+  @PreDestroy
+  public void stop() {
+    if (healthChecks != null) {
+      healthChecks.dispose();
+    }
+    replicas.forEach(replica -> replica.pool.dispose());
+  }
+
+  private Mono<Void> check(final Replica replica) {
+    return Mono.usingWhen(replica.pool.create(),
+            connection -> Mono.from(connection.validate(ValidationDepth.REMOTE)),
+            Connection::close)
+        .timeout(healthCheckTimeout)
+        .onErrorReturn(false)
+        .doOnNext(healthy -> {
+          if (healthy != replica.healthy) {
+            replica.healthy = healthy;
+            if (healthy) {
+              log.info("Read replica {} is up", replica.name);
+            } else {
+              log.warn("Read replica {} is down; its reads go elsewhere", replica.name);
+            }
+          }
+        })
+        .then();
+  }
+
+  private static ConnectionPool pool(
+      final String name,
+      final String url,
+      final R2dbcProperties properties) {
+    ConnectionFactory connectionFactory = ConnectionFactoryBuilder.withUrl(url)
+        .username(properties.getUsername())
+        .password(properties.getPassword())
+        .configure(options -> properties.getProperties()
+            .forEach((key, value) -> options.option(Option.valueOf(key), value)))
+        .build();
+    R2dbcProperties.Pool pool = properties.getPool();
+    PropertyMapper map = PropertyMapper.get().alwaysApplyingWhenNonNull();
+    ConnectionPoolConfiguration.Builder builder = ConnectionPoolConfiguration
+        .builder(connectionFactory)
+        .name(name);
+    map.from(pool.getInitialSize()).to(builder::initialSize);
+    map.from(pool.getMaxSize()).to(builder::maxSize);
+    map.from(pool.getMinIdle()).to(builder::minIdle);
+    map.from(pool.getMaxIdleTime()).to(builder::maxIdleTime);
+    map.from(pool.getMaxLifeTime()).to(builder::maxLifeTime);
+    map.from(pool.getMaxAcquireTime()).to(builder::maxAcquireTime);
+    map.from(pool.getMaxCreateConnectionTime()).to(builder::maxCreateConnectionTime);
+    map.from(pool.getMaxValidationTime()).to(builder::maxValidationTime);
+    map.from(pool.getValidationDepth()).to(builder::validationDepth);
+    map.from(pool.getValidationQuery()).whenHasText().to(builder::validationQuery);
+    return new ConnectionPool(builder.build());
+  }
+
+  /**
+   * Pool and health of one replica.
+   */
+  private static final class Replica {
+
+    /**
+     * Name of the replica, used as routing key and metric tag.
+     */
+    private final String name;
+
+    /**
+     * Pool of connections to the replica.
+     */
+    private final ConnectionPool pool;
+
+    /**
+     * Metrics of the pool.
+     */
+    private final PoolMetrics metrics;
+
+    /**
+     * Whether the replica passed its last health check.
+     */
+    private volatile boolean healthy;
+
+    Replica(final String name, final ConnectionPool pool) {
+      this.name = name;
+      this.pool = pool;
+      this.metrics = pool.getMetrics().orElse(null);
+    }
+
+    int load() {
+      return metrics != null ? metrics.acquiredSize() + metrics.pendingAcquireSize() : 0;
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package com.example.iam.routing;
+
+import java.time.Duration;
+import java.util.Collection;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Emails of users changed in the last moments, whose reads go to the primary until the change has
+ * reached the replicas. Every node learns of changes through the user invalidations it receives.
+ */
+@Component
+public final class RecentWrites {
+
+  /**
+   * Largest number of emails remembered at once.
+   */
+  private static final long MAXIMUM_SIZE = 100_000;
+
+  /**
+   * Emails written within the window.
+   */
+  private final Cache<String, Boolean> emails;
+
+  /**
+   * Creates the registry.
+   *
+   * @param window how long reads of a changed user go to the primary
+   */
+  public RecentWrites(
+      @Value("${application.database.replicas.read-your-writes-window:5s}") final Duration window) {
+    this.emails = Caffeine.newBuilder()
+        .maximumSize(MAXIMUM_SIZE)
+        .expireAfterWrite(window)
+        .build();
+  }
+
+  /**
+   * Records a change to a user.
+   *
+   * @param email the changed user's email
+   */
+  public void record(final String email) {
+    if (email != null) {
+      emails.put(email, Boolean.TRUE);
+    }
+  }
+
+  /**
+   * Tells whether the arguments of a read refer to a recently changed user.
+   *
+   * @param arguments the arguments of the read; strings and collections of strings are checked
+   * @return true if the read should go to the primary
+   */
+  boolean concerns(final Object[] arguments) {
+    if (emails.estimatedSize() == 0) {
+      return false;
+    }
+    for (Object argument : arguments) {
+      if (argument instanceof String email && emails.getIfPresent(email) != null) {
+        return true;
+      }
+      if (argument instanceof Collection<?> values) {
+        for (Object value : values) {
+          if (value instanceof String email && emails.getIfPresent(email) != null) {
+            return true;
+          }
+        }
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,26 @@
+package com.example.iam.routing;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a repository method whose query may be served by a read replica. A call whose string
+ * arguments include the email of a user changed in the last moments still goes to the primary, so
+ * users read their own writes.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReplicaRead {
+
+  /**
+   * Whether a call that finds nothing on the replica is repeated on the primary, for lookups of rows
+   * that may have been inserted too recently to be replicated.
+   *
+   * @return true to repeat empty results on the primary
+   */
+  boolean retryOnPrimaryIfEmpty() default false;
+}
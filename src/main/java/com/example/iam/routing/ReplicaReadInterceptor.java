@@ -0,0 +1,49 @@
+package com.example.iam.routing;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Repository interceptor routing the queries of {@link ReplicaRead} methods to a read replica,
+ * unless they concern a recently changed user.
+ */
+final class ReplicaReadInterceptor implements MethodInterceptor {
+
+  /**
+   * Emails of recently changed users.
+   */
+  private final RecentWrites recentWrites;
+
+  /**
+   * Creates the interceptor.
+   *
+   * @param recentWrites the emails of recently changed users
+   */
+  ReplicaReadInterceptor(final RecentWrites recentWrites) {
+    this.recentWrites = recentWrites;
+  }
+
+  @Override
+  public Object invoke(final MethodInvocation invocation) throws Throwable {
+    ReplicaRead replicaRead = invocation.getMethod().getAnnotation(ReplicaRead.class);
+    Object result = invocation.proceed();
+    if (replicaRead == null || recentWrites.concerns(invocation.getArguments())) {
+      return result;
+    }
+    if (result instanceof Mono<?> mono) {
+      return replicaRead.retryOnPrimaryIfEmpty() ? onReplicaThenPrimary(mono)
+          : DatabaseRoute.onReplica(mono);
+    }
+    if (result instanceof Flux<?> flux) {
+      return DatabaseRoute.onReplica(flux);
+    }
+    return result;
+  }
+
+  private static <T> Mono<T> onReplicaThenPrimary(final Mono<T> mono) {
+    return DatabaseRoute.onReplica(mono).switchIfEmpty(DatabaseRoute.onPrimary(mono));
+  }
+}
@@ -0,0 +1,74 @@
+package com.example.iam.routing;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import io.r2dbc.spi.ConnectionFactory;
+
+/**
+ * Puts the read replicas in front of the application when any is configured: the connection
+ * factory bean is wrapped in a {@link RoutingConnectionFactory}, and repositories route their
+ * {@link ReplicaRead} methods to it. Without replicas, this post processor changes nothing.
+ */
+@Component
+public final class ReplicaRoutingPostProcessor implements BeanPostProcessor {
+
+  /**
+   * Name of the connection factory bean used by repositories and transactions.
+   */
+  private static final String CONNECTION_FACTORY_BEAN = "connectionFactory";
+
+  /**
+   * Whether any replica is configured.
+   */
+  private final boolean enabled;
+
+  /**
+   * Read replicas, resolved when the connection factory is created.
+   */
+  private final ObjectProvider<ReadReplicas> replicas;
+
+  /**
+   * Emails of recently changed users, resolved when the first repository is created.
+   */
+  private final ObjectProvider<RecentWrites> recentWrites;
+
+  /**
+   * Creates the post processor.
+   *
+   * @param urls         the comma-separated R2DBC URLs of the replicas, empty for none
+   * @param replicas     the read replicas
+   * @param recentWrites the emails of recently changed users
+   */
+  public ReplicaRoutingPostProcessor(
+      @Value("${application.database.replicas.urls:}") final String urls,
+      final ObjectProvider<ReadReplicas> replicas,
+      final ObjectProvider<RecentWrites> recentWrites) {
+    this.enabled = StringUtils.hasText(urls);
+    this.replicas = replicas;
+    this.recentWrites = recentWrites;
+  }
+
+  @Override
+  public Object postProcessBeforeInitialization(final Object bean, final String beanName) {
+    if (enabled && bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+      factoryBean.addRepositoryFactoryCustomizer(factory -> factory
+          .addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) -> proxyFactory
+              .addAdvice(new ReplicaReadInterceptor(recentWrites.getObject()))));
+    }
+    return bean;
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+    if (enabled && CONNECTION_FACTORY_BEAN.equals(beanName)
+        && bean instanceof ConnectionFactory primary) {
+      return new RoutingConnectionFactory(primary, replicas.getObject());
+    }
+    return bean;
+  }
+}
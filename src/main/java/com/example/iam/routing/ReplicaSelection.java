@@ -0,0 +1,29 @@
+package com.example.iam.routing;
+
+import java.util.Locale;
+
+/**
+ * Strategy choosing the replica that serves a read among the healthy ones.
+ */
+public enum ReplicaSelection {
+
+  /**
+   * Each read goes to the next replica in turn.
+   */
+  ROUND_ROBIN,
+
+  /**
+   * Each read goes to the replica with the fewest acquired and pending connections.
+   */
+  LEAST_PENDING;
+
+  /**
+   * Parses a strategy from its configuration value, such as {@code round-robin}.
+   *
+   * @param value the configuration value
+   * @return the strategy
+   */
+  public static ReplicaSelection parse(final String value) {
+    return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+  }
+}
@@ -0,0 +1,87 @@
+package com.example.iam.routing;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.r2dbc.connection.lookup.AbstractRoutingConnectionFactory;
+
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Wrapped;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+/**
+ * Connection factory sending pipelines routed to {@link DatabaseRoute#REPLICA} to a healthy read
+ * replica and everything else to the primary. The primary stays reachable through
+ * {@link Wrapped}, so its pool metrics, health check and warm-up still find it, and disposing of the
+ * router disposes of the primary.
+ */
+final class RoutingConnectionFactory extends AbstractRoutingConnectionFactory
+    implements Wrapped<ConnectionFactory>, Disposable {
+
+  /**
+   * Routing key of the primary.
+   */
+  private static final String PRIMARY_KEY = "primary";
+
+  /**
+   * Shared lookup result for the primary.
+   */
+  private static final Mono<Object> PRIMARY = Mono.just(PRIMARY_KEY);
+
+  /**
+   * Primary connection factory.
+   */
+  private final ConnectionFactory primary;
+
+  /**
+   * Read replicas and their health.
+   */
+  private final ReadReplicas replicas;
+
+  /**
+   * Creates the router.
+   *
+   * @param primary  the primary connection factory
+   * @param replicas the read replicas
+   */
+  RoutingConnectionFactory(final ConnectionFactory primary, final ReadReplicas replicas) {
+    this.primary = primary;
+    this.replicas = replicas;
+    Map<Object, Object> targets = new HashMap<>(replicas.pools());
+    targets.put(PRIMARY_KEY, primary);
+    setTargetConnectionFactories(targets);
+    setDefaultTargetConnectionFactory(primary);
+    afterPropertiesSet();
+  }
+
+  @Override
+  protected Mono<Object> determineCurrentLookupKey() {
+    return Mono.deferContextual(context -> {
+      if (DatabaseRoute.of(context) == DatabaseRoute.REPLICA) {
+        String replica = replicas.select();
+        if (replica != null) {
+          return Mono.just(replica);
+        }
+      }
+      return PRIMARY;
+    });
+  }
+
+  @Override
+  public ConnectionFactory unwrap() {
+    return primary;
+  }
+
+  @Override
+  public void dispose() {
+    if (primary instanceof Disposable disposable) {
+      disposable.dispose();
+    }
+  }
+
+  @Override
+  public boolean isDisposed() {
+    return primary instanceof Disposable disposable && disposable.isDisposed();
+  }
+}
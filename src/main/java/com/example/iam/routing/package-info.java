@@ -0,0 +1,7 @@
+/**
+ * Database routing package for the IAM service.
+ * <p>
+ * Contains the routing of: - Read-only repository calls to read replicas - Writes and transactions
+ * to the primary
+ */
+package com.example.iam.routing;
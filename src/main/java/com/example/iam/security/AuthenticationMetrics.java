@@ -0,0 +1,170 @@
+package com.example.iam.security;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+
+/**
+ * Timers of the phases of login and token authentication, published as {@code iam.auth.phase}
+ * tagged with {@code phase} and {@code outcome}. Each timer also counts its phase's outcomes. All
+ * timers are registered up front, so recording a synchronous phase costs two clock reads and no
+ * allocation. The latency buckets come from {@code management.metrics.distribution.slo}.
+ */
+@Component
+public final class AuthenticationMetrics {
+
+  /**
+   * Name of the phase timers.
+   */
+  public static final String METER_NAME = "iam.auth.phase";
+
+  /**
+   * Timers indexed by phase and outcome ordinals, null for outcomes a phase cannot have.
+   */
+  private final Timer[][] timers;
+
+  /**
+   * Registers the phase timers.
+   *
+   * @param meterRegistry the registry receiving the timers
+   */
+  public AuthenticationMetrics(final MeterRegistry meterRegistry) {
+    this.timers = new Timer[Phase.values().length][Outcome.values().length];
+    for (Phase phase : Phase.values()) {
+      for (Outcome outcome : phase.outcomes) {
+        timers[phase.ordinal()][outcome.ordinal()] = Timer.builder(METER_NAME)
+            .tag("phase", phase.tag)
+            .tag("outcome", outcome.tag)
+            .description("Time spent in a phase of authentication")
+            .register(meterRegistry);
+      }
+    }
+  }
+
+  /**
+   * Records a phase that started at a given time.
+   *
+   * @param phase      the phase
+   * @param outcome    the outcome of the phase
+   * @param startNanos the {@link System#nanoTime()} at which the phase started
+   */
+  public void record(final Phase phase, final Outcome outcome, final long startNanos) {
+    Timer timer = timers[phase.ordinal()][outcome.ordinal()];
+    if (timer != null) {
+      timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /**
+   * Times a reactive phase from subscription to its result: a value counts as a success, an empty
+   * completion or an authentication exception as a failure, and any other error as an error.
+   * Cancelled phases are not recorded.
+   *
+   * @param <T>   the result type
+   * @param phase the phase
+   * @param mono  the phase's pipeline
+   * @return the timed pipeline
+   */
+  public <T> Mono<T> time(final Phase phase, final Mono<T> mono) {
+    return Mono.defer(() -> {
+      long start = System.nanoTime();
+      return mono
+          .doOnSuccess(value -> record(phase, value != null ? Outcome.SUCCESS : Outcome.FAILURE,
+              start))
+          .doOnError(e -> record(phase, e instanceof AuthenticationException
+              ? Outcome.FAILURE : Outcome.ERROR, start));
+    });
+  }
+
+  /**
+   * Outcome of a phase.
+   */
+  public enum Outcome {
+
+    /**
+     * The phase produced its result: a user, a matching password, a token or a principal.
+     */
+    SUCCESS,
+
+    /**
+     * The phase ran but rejected the request: unknown user, wrong password or invalid token.
+     */
+    FAILURE,
+
+    /**
+     * The phase could not complete, for instance because a backend was unavailable.
+     */
+    ERROR,
+
+    /**
+     * A cache lookup found an entry.
+     */
+    HIT,
+
+    /**
+     * A cache lookup found nothing.
+     */
+    MISS;
+
+    /**
+     * Value of the {@code outcome} tag.
+     */
+    private final String tag = name().toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Phase of authentication.
+   */
+  public enum Phase {
+
+    /**
+     * Loading the user of a login from the database.
+     */
+    USER_LOOKUP(Outcome.SUCCESS, Outcome.FAILURE, Outcome.ERROR),
+
+    /**
+     * Verifying a login password, including the wait for a hashing thread.
+     */
+    PASSWORD_VERIFY(Outcome.SUCCESS, Outcome.FAILURE, Outcome.ERROR),
+
+    /**
+     * Signing an access or refresh token.
+     */
+    TOKEN_SIGN(Outcome.SUCCESS, Outcome.ERROR),
+
+    /**
+     * Parsing a token and checking its signature and expiration.
+     */
+    TOKEN_VERIFY(Outcome.SUCCESS, Outcome.FAILURE, Outcome.ERROR),
+
+    /**
+     * Building the principal of a verified access token, from its claims or the user caches.
+     */
+    PRINCIPAL_RESOLUTION(Outcome.SUCCESS, Outcome.FAILURE, Outcome.ERROR),
+
+    /**
+     * Looking up a bearer token in the cache of verification outcomes.
+     */
+    TOKEN_CACHE(Outcome.HIT, Outcome.MISS);
+
+    /**
+     * Value of the {@code phase} tag.
+     */
+    private final String tag = name().toLowerCase(Locale.ROOT);
+
+    /**
+     * Outcomes the phase can have.
+     */
+    private final Outcome[] outcomes;
+
+    Phase(final Outcome... outcomes) {
+      this.outcomes = outcomes;
+    }
+  }
+}
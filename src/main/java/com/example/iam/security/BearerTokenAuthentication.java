@@ -0,0 +1,46 @@
+package com.example.iam.security;
+
+import java.util.List;
+
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+
+/**
+ * Unauthenticated request carrying a bearer token, handed from the
+ * {@link BearerTokenServerAuthenticationConverter} to the {@link JwtReactiveAuthenticationManager}.
+ */
+public final class BearerTokenAuthentication extends AbstractAuthenticationToken {
+
+  /**
+   * The compact token.
+   */
+  private final String token;
+
+  /**
+   * Creates an unauthenticated bearer token request.
+   *
+   * @param token the compact token
+   */
+  public BearerTokenAuthentication(final String token) {
+    super(List.of());
+    this.token = token;
+  }
+
+  /**
+   * Returns the compact token.
+   *
+   * @return the token
+   */
+  public String getToken() {
+    return token;
+  }
+
+  @Override
+  public Object getCredentials() {
+    return token;
+  }
+
+  @Override
+  public Object getPrincipal() {
+    return token;
+  }
+}
@@ -0,0 +1,41 @@
+package com.example.iam.security;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.server.authentication.ServerAuthenticationConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Extracts the bearer token from the {@code Authorization} header. Requests without one are left
+ * unauthenticated.
+ */
+@Component
+public final class BearerTokenServerAuthenticationConverter
+    implements ServerAuthenticationConverter {
+
+  /**
+   * Prefix of bearer credentials in the {@code Authorization} header.
+   */
+  private static final String BEARER_PREFIX = "Bearer ";
+
+  /**
+   * Extracts the bearer token of a request.
+   *
+   * @param exchange the current server exchange
+   * @return the unauthenticated token, or empty if the request carries none
+   */
+  @Override
+  public Mono<Authentication> convert(final ServerWebExchange exchange) {
+    String authHeader = exchange.getRequest()
+        .getHeaders()
+        .getFirst(HttpHeaders.AUTHORIZATION);
+    if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)
+        || authHeader.length() == BEARER_PREFIX.length()) {
+      return Mono.empty();
+    }
+    return Mono.just(new BearerTokenAuthentication(authHeader.substring(BEARER_PREFIX.length())));
+  }
+}
@@ -0,0 +1,133 @@
+package com.example.iam.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter over strings, sized for an expected number of insertions and a target
+ * false-positive rate. Membership tests hash the characters in place and allocate nothing.
+ */
+final class BloomFilter {
+
+  /**
+   * Number of bits per word of the bit array.
+   */
+  private static final int WORD_BITS = 64;
+
+  /**
+   * Shift converting a bit index into a word index.
+   */
+  private static final int WORD_SHIFT = 6;
+
+  /**
+   * Offset basis of the 64-bit FNV-1a hash.
+   */
+  private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+  /**
+   * Prime of the 64-bit FNV-1a hash.
+   */
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  /**
+   * First multiplier of the 64-bit finalizer of MurmurHash3.
+   */
+  private static final long MIX_MULTIPLIER_1 = 0xff51afd7ed558ccdL;
+
+  /**
+   * Second multiplier of the 64-bit finalizer of MurmurHash3.
+   */
+  private static final long MIX_MULTIPLIER_2 = 0xc4ceb9fe1a85ec53L;
+
+  /**
+   * Shift of the 64-bit finalizer of MurmurHash3.
+   */
+  private static final int MIX_SHIFT = 33;
+
+  /**
+   * Bit array.
+   */
+  private final AtomicLongArray words;
+
+  /**
+   * Number of bits in the bit array.
+   */
+  private final long bitCount;
+
+  /**
+   * Number of bits set per element.
+   */
+  private final int hashCount;
+
+  /**
+   * Creates an empty filter.
+   *
+   * @param expectedInsertions the number of elements the filter is sized for
+   * @param falsePositiveRate  the target false-positive rate at that size
+   */
+  BloomFilter(final long expectedInsertions, final double falsePositiveRate) {
+    long insertions = Math.max(1, expectedInsertions);
+    long bits = (long) Math.ceil(-insertions * Math.log(falsePositiveRate)
+        / (Math.log(2) * Math.log(2)));
+    int wordCount = (int) Math.max(1, (bits + WORD_BITS - 1) / WORD_BITS);
+    this.words = new AtomicLongArray(wordCount);
+    this.bitCount = (long) wordCount * WORD_BITS;
+    this.hashCount = (int) Math.max(1, Math.round((double) bitCount / insertions * Math.log(2)));
+  }
+
+  /**
+   * Adds an element.
+   *
+   * @param value the element
+   */
+  void put(final String value) {
+    long hash1 = hash(value);
+    long hash2 = mix(hash1);
+    for (int i = 0; i < hashCount; i++) {
+      long bit = Long.remainderUnsigned(hash1 + i * hash2, bitCount);
+      int index = (int) (bit >>> WORD_SHIFT);
+      long mask = 1L << bit;
+      long word = words.get(index);
+      while ((word & mask) == 0 && !words.compareAndSet(index, word, word | mask)) {
+        word = words.get(index);
+      }
+    }
+  }
+
+  /**
+   * Tells whether an element might have been added. False positives are possible, false negatives
+   * are not.
+   *
+   * @param value the element
+   * @return false if the element was definitely never added
+   */
+  boolean mightContain(final String value) {
+    long hash1 = hash(value);
+    long hash2 = mix(hash1);
+    for (int i = 0; i < hashCount; i++) {
+      long bit = Long.remainderUnsigned(hash1 + i * hash2, bitCount);
+      if ((words.get((int) (bit >>> WORD_SHIFT)) & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static long hash(final String value) {
+    long hash = FNV_OFFSET_BASIS;
+    for (int i = 0; i < value.length(); i++) {
+      hash ^= value.charAt(i);
+      hash *= FNV_PRIME;
+    }
+    return mix(hash);
+  }
+
+  private static long mix(final long value) {
+    long hash = value;
+    hash ^= hash >>> MIX_SHIFT;
+    hash *= MIX_MULTIPLIER_1;
+    hash ^= hash >>> MIX_SHIFT;
+    hash *= MIX_MULTIPLIER_2;
+    hash ^= hash >>> MIX_SHIFT;
+    return hash | 1L;
+  }
+}
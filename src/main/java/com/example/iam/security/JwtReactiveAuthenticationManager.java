@@ -0,0 +1,180 @@
+package com.example.iam.security;
+
+import java.util.Optional;
+
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import com.example.iam.security.AuthenticationMetrics.Outcome;
+import com.example.iam.security.AuthenticationMetrics.Phase;
+
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * Authentication manager for bearer tokens, plugged into the stateless authentication web filter.
+ * In stateless principal mode, tokens carrying principal claims are authenticated without loading
+ * the user. Verification outcomes are cached, so a replayed token costs neither a signature check
+ * nor a lookup. Revoked tokens are rejected, with a Redis call only for ids the in-memory
+ * revocation filter flags.
+ */
+@Component
+@RequiredArgsConstructor
+public final class JwtReactiveAuthenticationManager implements ReactiveAuthenticationManager {
+
+  /**
+   * Shared failure for invalid, expired, revoked and refresh tokens.
+   */
+  private static final Mono<Authentication> INVALID_TOKEN =
+      Mono.error(() -> new BadCredentialsException("Invalid or expired token"));
+
+  /**
+   * Service for handling JWT operations.
+   */
+  private final JwtService jwtService;
+
+  /**
+   * Service for loading user details.
+   */
+  private final ReactiveUserDetailsService userDetailsService;
+
+  /**
+   * Registry of user versions used to reject tokens issued before an account change.
+   */
+  private final UserVersionRegistry userVersionRegistry;
+
+  /**
+   * Cache of token verification outcomes.
+   */
+  private final VerifiedTokenCache verifiedTokenCache;
+
+  /**
+   * Denylist of revoked token ids.
+   */
+  private final TokenRevocationService tokenRevocationService;
+
+  /**
+   * Timers of the token cache lookup and principal resolution.
+   */
+  private final AuthenticationMetrics metrics;
+
+  /**
+   * Authenticates a bearer token.
+   *
+   * @param authentication the unauthenticated bearer token
+   * @return a mono emitting the authenticated principal, or a {@link BadCredentialsException} if
+   *         the token is not a valid access token
+   */
+  @Override
+  public Mono<Authentication> authenticate(final Authentication authentication) {
+    if (!(authentication instanceof BearerTokenAuthentication bearer)) {
+      return Mono.empty();
+    }
+    return Mono.defer(() -> authenticate(bearer.getToken()))
+        .switchIfEmpty(INVALID_TOKEN);
+  }
+
+  private Mono<Authentication> authenticate(final String jwt) {
+    long start = System.nanoTime();
+    VerifiedTokenCache.Key key = verifiedTokenCache.keyOf(jwt);
+    VerifiedTokenCache.Entry cached = verifiedTokenCache.lookup(key);
+    metrics.record(Phase.TOKEN_CACHE, cached != null ? Outcome.HIT : Outcome.MISS, start);
+    if (cached != null) {
+      return cached.isInvalid()
+          ? Mono.empty()
+          : unlessRevoked(key, cached.tokenId(), Mono.just(cached.authentication()));
+    }
+
+    TokenClaims claims;
+    try {
+      claims = jwtService.verifyToken(jwt);
+    } catch (JwtException | IllegalArgumentException e) {
+      verifiedTokenCache.rememberInvalid(key);
+      return Mono.empty();
+    }
+    if (claims.isRefreshToken()) {
+      verifiedTokenCache.rememberInvalid(key);
+      return Mono.empty();
+    }
+
+    return unlessRevoked(key, claims.id(), metrics.time(Phase.PRINCIPAL_RESOLUTION,
+            resolveAuthentication(claims))
+        .doOnNext(auth -> verifiedTokenCache.rememberValid(
+            key, auth, claims.id(), claims.expiration())));
+  }
+
+  /**
+   * Checks the revocation denylist before authenticating. Tokens the in-memory filter rules out
+   * skip the check entirely; only probable hits cost a Redis call.
+   *
+   * @param key            the token key
+   * @param tokenId        the token id, or null if the token has none
+   * @param authentication the authentication to emit unless the token is revoked
+   * @return the authentication, or empty if the token is revoked
+   */
+  private Mono<Authentication> unlessRevoked(
+      final VerifiedTokenCache.Key key,
+      final String tokenId,
+      final Mono<Authentication> authentication) {
+    if (!tokenRevocationService.mightBeRevoked(tokenId)) {
+      return authentication;
+    }
+    return tokenRevocationService.isRevoked(tokenId)
+        .flatMap(revoked -> {
+          if (revoked) {
+            verifiedTokenCache.rememberInvalid(key);
+            return Mono.empty();
+          }
+          return authentication;
+        });
+  }
+
+  private Mono<Authentication> resolveAuthentication(final TokenClaims claims) {
+    if (jwtService.isStatelessPrincipal()) {
+      Optional<TokenPrincipal> principal = jwtService.extractPrincipal(claims);
+      if (principal.isPresent()) {
+        return Mono.justOrEmpty(authenticateStateless(principal.get(), claims));
+      }
+    }
+
+    if (claims.subject() == null) {
+      return Mono.empty();
+    }
+    return userDetailsService.findByUsername(claims.subject())
+        .filter(userDetails -> jwtService.isTokenValid(claims, userDetails)
+            && isUsable(userDetails))
+        .map(userDetails -> new UsernamePasswordAuthenticationToken(
+            userDetails,
+            null,
+            userDetails.getAuthorities()
+        ));
+  }
+
+  /**
+   * Applies the account status checks introspection applies, so a token is never accepted here
+   * while introspection reports it inactive.
+   *
+   * @param userDetails the token's user
+   * @return true if the account is enabled, unlocked and unexpired
+   */
+  private static boolean isUsable(final UserDetails userDetails) {
+    return userDetails.isEnabled() && userDetails.isAccountNonLocked()
+        && userDetails.isAccountNonExpired() && userDetails.isCredentialsNonExpired();
+  }
+
+  private Authentication authenticateStateless(
+      final TokenPrincipal principal,
+      final TokenClaims claims) {
+    if (!claims.isAccountActive()
+        || !userVersionRegistry.isCurrent(principal.id(), principal.version())) {
+      return null;
+    }
+    return new UsernamePasswordAuthenticationToken(principal, null, principal.authorities());
+  }
+}
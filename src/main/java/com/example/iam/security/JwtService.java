@@ -1,27 +1,35 @@
 package com.example.iam.security;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.function.Function;
 
-import javax.crypto.SecretKey;
-
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import io.jsonwebtoken.Claims;
+import com.example.iam.domain.user.RoleAuthorities;
+import com.example.iam.domain.user.User;
+import com.example.iam.security.AuthenticationMetrics.Outcome;
+import com.example.iam.security.AuthenticationMetrics.Phase;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
 
 /**
- * Service for handling JWT token operations.
+ * Service for handling JWT token operations. The parser is built once at construction and shared
+ * by all requests; it resolves verification keys by key id through the {@link SigningKeyRing}.
  */
 @Service
-@RequiredArgsConstructor
 public final class JwtService {
 
   /**
@@ -30,22 +38,100 @@ public final class JwtService {
   private static final int MILLISECONDS_IN_SECOND = 1000;
 
   /**
-   * Secret key for JWT signing.
+   * Keys used to sign and verify tokens.
+   */
+  private final SigningKeyRing keyRing;
+
+  /**
+   * Thread-safe parser reused for every verification.
+   */
+  private final JwtParser jwtParser;
+
+  /**
+   * Access token expiration time in seconds.
+   */
+  private final long jwtExpiration;
+
+  /**
+   * Refresh token expiration time in seconds.
+   */
+  private final long refreshExpiration;
+
+  /**
+   * Whether tokens embed the principal so requests can be authenticated without a user lookup.
    */
-  @Value("${application.security.jwt.secret-key}")
-  private String secretKey;
+  private final boolean statelessPrincipal;
 
   /**
-   * Access token expiration time in minutes.
+   * Timers of token signing and verification.
    */
-  @Value("${application.security.jwt.expiration}")
-  private long jwtExpiration;
+  private final AuthenticationMetrics metrics;
 
   /**
-   * Refresh token expiration time in minutes.
+   * Creates the service, building the parser once.
+   *
+   * @param keyRing            the keys used to sign and verify tokens
+   * @param metrics            the timers of token signing and verification
+   * @param jwtExpiration     access token expiration time in seconds
+   * @param refreshExpiration  refresh token expiration time in seconds
+   * @param statelessPrincipal whether tokens embed the user id, authorities and account state
+   */
+  public JwtService(
+      final SigningKeyRing keyRing,
+      final AuthenticationMetrics metrics,
+      @Value("${application.security.jwt.expiration}") final long jwtExpiration,
+      @Value("${application.security.jwt.refresh-token.expiration}") final long refreshExpiration,
+      @Value("${application.security.jwt.stateless-principal:false}") final boolean statelessPrincipal) {
+    this.keyRing = keyRing;
+    this.metrics = metrics;
+    this.jwtParser = Jwts.parser()
+        .keyLocator(keyRing.keyLocator())
+        .build();
+    this.jwtExpiration = jwtExpiration;
+    this.refreshExpiration = refreshExpiration;
+    this.statelessPrincipal = statelessPrincipal;
+  }
+
+  /**
+   * Tells whether requests should be authenticated from token claims instead of a user lookup.
+   *
+   * @return true if the stateless principal mode is enabled
    */
-  @Value("${application.security.jwt.refresh-token.expiration}")
-  private long refreshExpiration;
+  public boolean isStatelessPrincipal() {
+    return statelessPrincipal;
+  }
+
+  /**
+   * Returns the lifetime of refresh tokens.
+   *
+   * @return the refresh token lifetime
+   */
+  public Duration getRefreshTokenLifetime() {
+    return Duration.ofSeconds(refreshExpiration);
+  }
+
+  /**
+   * Verifies the token signature and expiration once and returns its claims.
+   *
+   * @param token the JWT token
+   * @return the immutable claims snapshot
+   * @throws io.jsonwebtoken.JwtException if the token is malformed, badly signed or expired
+   * @throws IllegalArgumentException      if the token is null or empty
+   */
+  public TokenClaims verifyToken(final String token) {
+    long start = System.nanoTime();
+    try {
+      TokenClaims claims = TokenClaims.from(jwtParser.parseSignedClaims(token).getPayload());
+      metrics.record(Phase.TOKEN_VERIFY, Outcome.SUCCESS, start);
+      return claims;
+    } catch (JwtException | IllegalArgumentException e) {
+      metrics.record(Phase.TOKEN_VERIFY, Outcome.FAILURE, start);
+      throw e;
+    } catch (RuntimeException e) {
+      metrics.record(Phase.TOKEN_VERIFY, Outcome.ERROR, start);
+      throw e;
+    }
+  }
 
   /**
    * Extracts username from JWT token.
@@ -54,7 +140,7 @@ public final class JwtService {
    * @return the username
    */
   public String extractUsername(final String token) {
-    return extractClaim(token, Claims::getSubject);
+    return verifyToken(token).subject();
   }
 
   /**
@@ -77,31 +163,84 @@ public final class JwtService {
   public String generateAccessToken(
       final Map<String, Object> extraClaims,
       final UserDetails userDetails) {
-    return buildToken(extraClaims, userDetails, jwtExpiration);
+    Map<String, Object> claims = new HashMap<>(extraClaims);
+    if (statelessPrincipal) {
+      claims.putAll(principalClaims(userDetails));
+    }
+    claims.put(TokenClaims.TOKEN_TYPE, TokenClaims.ACCESS_TOKEN);
+    return buildToken(claims, userDetails, jwtExpiration, UUID.randomUUID().toString());
   }
 
   /**
-   * Generates refresh token for user.
+   * Generates a refresh token belonging to a refresh token family.
    *
    * @param userDetails the user details
+   * @param familyId    the id of the token family
+   * @param tokenId     the id of the token within its family
    * @return the refresh token
    */
-  public String generateRefreshToken(final UserDetails userDetails) {
-    return buildToken(new HashMap<>(), userDetails, refreshExpiration);
+  public String generateRefreshToken(
+      final UserDetails userDetails,
+      final String familyId,
+      final String tokenId) {
+    return buildToken(Map.of(
+        TokenClaims.TOKEN_TYPE, TokenClaims.REFRESH_TOKEN,
+        TokenClaims.FAMILY_ID, familyId), userDetails, refreshExpiration, tokenId);
   }
 
   private String buildToken(
-      final Map<String, Object> extraClaims,
+      final Map<String, Object> claims,
       final UserDetails userDetails,
-      final long expiration) {
-    return Jwts.builder()
-        .claims(extraClaims)
-        .subject(userDetails.getUsername())
-        .issuedAt(new Date(System.currentTimeMillis()))
-        .expiration(new Date(System.currentTimeMillis()
-            + expiration * MILLISECONDS_IN_SECOND))
-        .signWith(getSignInKey())
-        .compact();
+      final long expiration,
+      final String tokenId) {
+    long start = System.nanoTime();
+    try {
+      String token = keyRing.sign(Jwts.builder())
+          .claims(claims)
+          .id(tokenId)
+          .subject(userDetails.getUsername())
+          .issuedAt(new Date(System.currentTimeMillis()))
+          .expiration(new Date(System.currentTimeMillis()
+              + expiration * MILLISECONDS_IN_SECOND))
+          .compact();
+      metrics.record(Phase.TOKEN_SIGN, Outcome.SUCCESS, start);
+      return token;
+    } catch (RuntimeException e) {
+      metrics.record(Phase.TOKEN_SIGN, Outcome.ERROR, start);
+      throw e;
+    }
+  }
+
+  private Map<String, Object> principalClaims(final UserDetails userDetails) {
+    if (!(userDetails instanceof User user) || user.getId() == null) {
+      return Map.of();
+    }
+    return Map.of(
+        TokenClaims.USER_ID, user.getId().toString(),
+        TokenClaims.AUTHORITIES, AuthorityUtils.authorityListToSet(user.getAuthorities()),
+        TokenClaims.VERSION, user.getVersion() != null ? user.getVersion() : 0L,
+        TokenClaims.ENABLED, user.isEnabled(),
+        TokenClaims.ACCOUNT_NON_LOCKED, user.isAccountNonLocked(),
+        TokenClaims.ACCOUNT_NON_EXPIRED, user.isAccountNonExpired(),
+        TokenClaims.CREDENTIALS_NON_EXPIRED, user.isCredentialsNonExpired());
+  }
+
+  /**
+   * Rebuilds the principal embedded in verified token claims.
+   *
+   * @param claims the verified token claims
+   * @return the principal, or empty if the token was issued without principal claims
+   */
+  public Optional<TokenPrincipal> extractPrincipal(final TokenClaims claims) {
+    String userId = claims.get(TokenClaims.USER_ID, String.class);
+    Number version = claims.get(TokenClaims.VERSION, Number.class);
+    List<?> authorities = claims.get(TokenClaims.AUTHORITIES, List.class);
+    if (claims.subject() == null || userId == null || version == null || authorities == null) {
+      return Optional.empty();
+    }
+    List<GrantedAuthority> granted = RoleAuthorities.fromNames(authorities);
+    return Optional.of(new TokenPrincipal(
+        UUID.fromString(userId), claims.subject(), granted, version.longValue()));
   }
 
   /**
@@ -112,16 +251,19 @@ public final class JwtService {
    * @return true if token is valid
    */
   public boolean isTokenValid(final String token, final UserDetails userDetails) {
-    final String username = extractUsername(token);
-    return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
-  }
-
-  private boolean isTokenExpired(final String token) {
-    return extractExpiration(token).before(new Date());
+    return isTokenValid(verifyToken(token), userDetails);
   }
 
-  private Date extractExpiration(final String token) {
-    return extractClaim(token, Claims::getExpiration);
+  /**
+   * Validates already verified token claims against the user, without any cryptographic work.
+   *
+   * @param claims      the verified token claims
+   * @param userDetails the user details
+   * @return true if the token belongs to the user and is not expired
+   */
+  public boolean isTokenValid(final TokenClaims claims, final UserDetails userDetails) {
+    return userDetails.getUsername().equals(claims.subject())
+        && !claims.isExpired(Instant.now());
   }
 
   /**
@@ -134,21 +276,7 @@ public final class JwtService {
    */
   public <T> T extractClaim(
       final String token,
-      final Function<Claims, T> claimsResolver) {
-    final Claims claims = extractAllClaims(token);
-    return claimsResolver.apply(claims);
-  }
-
-  private Claims extractAllClaims(final String token) {
-    return Jwts.parser()
-        .verifyWith(getSignInKey())
-        .build()
-        .parseSignedClaims(token)
-        .getPayload();
-  }
-
-  private SecretKey getSignInKey() {
-    byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-    return Keys.hmacShaKeyFor(keyBytes);
+      final Function<TokenClaims, T> claimsResolver) {
+    return claimsResolver.apply(verifyToken(token));
   }
 }
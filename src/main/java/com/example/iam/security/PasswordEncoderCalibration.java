@@ -0,0 +1,182 @@
+package com.example.iam.security;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Command-line tool measuring password hashing cost on the current hardware and recommending the
+ * highest cost whose median verification time stays within a target. Run it on the hardware that
+ * serves production traffic:
+ *
+ * <pre>
+ * java -cp target/iam-service-1.0.0.jar \
+ *     -Dloader.main=com.example.iam.security.PasswordEncoderCalibration \
+ *     org.springframework.boot.loader.launch.PropertiesLauncher \
+ *     --algorithm=bcrypt --target=250ms --samples=5
+ * </pre>
+ */
+public final class PasswordEncoderCalibration {
+
+  /**
+   * Password hashed during calibration.
+   */
+  private static final String SAMPLE_PASSWORD = "calibration-password";
+
+  /**
+   * Default verification time target.
+   */
+  private static final Duration DEFAULT_TARGET = Duration.ofMillis(250);
+
+  /**
+   * Default number of timed verifications per cost.
+   */
+  private static final int DEFAULT_SAMPLES = 5;
+
+  /**
+   * Lowest BCrypt strength considered.
+   */
+  private static final int BCRYPT_MIN_STRENGTH = 8;
+
+  /**
+   * Highest BCrypt strength supported.
+   */
+  private static final int BCRYPT_MAX_STRENGTH = 31;
+
+  /**
+   * Lowest Argon2 memory cost considered, in KiB.
+   */
+  private static final int ARGON2_MIN_MEMORY_KIB = 8 * 1024;
+
+  /**
+   * Highest Argon2 memory cost considered, in KiB.
+   */
+  private static final int ARGON2_MAX_MEMORY_KIB = 1024 * 1024;
+
+  /**
+   * Argon2 iterations used while calibrating memory.
+   */
+  private static final int ARGON2_ITERATIONS = 2;
+
+  /**
+   * Argon2 parallelism used while calibrating memory.
+   */
+  private static final int ARGON2_PARALLELISM = 1;
+
+  /**
+   * Lowest PBKDF2 iteration count considered.
+   */
+  private static final int PBKDF2_MIN_ITERATIONS = 100_000;
+
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private PasswordEncoderCalibration() {
+  }
+
+  /**
+   * Runs the calibration.
+   *
+   * @param args {@code --algorithm=bcrypt|argon2|pbkdf2}, {@code --target=<duration>} and
+   *             {@code --samples=<count>}
+   */
+  public static void main(final String[] args) {
+    String algorithm = PasswordEncoders.BCRYPT;
+    Duration target = DEFAULT_TARGET;
+    int samples = DEFAULT_SAMPLES;
+    for (String arg : args) {
+      if (arg.startsWith("--algorithm=")) {
+        algorithm = value(arg);
+      } else if (arg.startsWith("--target=")) {
+        target = DurationStyle.detectAndParse(value(arg));
+      } else if (arg.startsWith("--samples=")) {
+        samples = Integer.parseInt(value(arg));
+      } else {
+        throw new IllegalArgumentException("Unknown argument: " + arg);
+      }
+    }
+
+    System.out.printf("Calibrating %s for a median verification time of %d ms (%d samples)%n",
+        algorithm, target.toMillis(), samples);
+    switch (algorithm) {
+      case PasswordEncoders.BCRYPT -> {
+        int strength = calibrate(PasswordEncoders::bcrypt, "strength", BCRYPT_MIN_STRENGTH,
+            BCRYPT_MAX_STRENGTH, cost -> cost + 1, target, samples);
+        printRecommendation(algorithm, "bcrypt:\n        strength: " + strength);
+      }
+      case PasswordEncoders.ARGON2 -> {
+        int memory = calibrate(
+            cost -> PasswordEncoders.argon2(cost, ARGON2_ITERATIONS, ARGON2_PARALLELISM),
+            "memory KiB", ARGON2_MIN_MEMORY_KIB, ARGON2_MAX_MEMORY_KIB, cost -> cost * 2, target,
+            samples);
+        printRecommendation(algorithm, "argon2:\n        memory: " + memory
+            + "\n        iterations: " + ARGON2_ITERATIONS
+            + "\n        parallelism: " + ARGON2_PARALLELISM);
+      }
+      case PasswordEncoders.PBKDF2 -> {
+        int iterations = calibrate(PasswordEncoders::pbkdf2, "iterations", PBKDF2_MIN_ITERATIONS,
+            PasswordEncoders.MAX_PBKDF2_ITERATIONS, cost -> cost + PBKDF2_MIN_ITERATIONS, target, samples);
+        printRecommendation(algorithm, "pbkdf2:\n        iterations: " + iterations);
+      }
+      default -> throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+    }
+  }
+
+  /**
+   * Walks costs upwards until the median verification time exceeds the target.
+   *
+   * @param encoders creates an encoder for a given cost
+   * @param costName name of the cost printed with each measurement
+   * @param minCost  the lowest cost tried
+   * @param maxCost  the highest cost tried
+   * @param nextCost computes the cost tried after a given one
+   * @param target   the median verification time target
+   * @param samples  the number of timed verifications per cost
+   * @return the highest cost within the target, or the minimum cost if even that exceeds it
+   */
+  private static int calibrate(
+      final IntFunction<PasswordEncoder> encoders,
+      final String costName,
+      final int minCost,
+      final int maxCost,
+      final IntUnaryOperator nextCost,
+      final Duration target,
+      final int samples) {
+    int best = minCost;
+    for (int cost = minCost; cost <= maxCost; cost = nextCost.applyAsInt(cost)) {
+      Duration median = medianVerification(encoders.apply(cost), samples);
+      System.out.printf("  %s %d: %d ms%n", costName, cost, median.toMillis());
+      if (median.compareTo(target) > 0) {
+        break;
+      }
+      best = cost;
+    }
+    return best;
+  }
+
+  private static Duration medianVerification(final PasswordEncoder encoder, final int samples) {
+    String encoded = encoder.encode(SAMPLE_PASSWORD);
+    encoder.matches(SAMPLE_PASSWORD, encoded);
+    long[] timings = new long[samples];
+    for (int i = 0; i < samples; i++) {
+      long start = System.nanoTime();
+      encoder.matches(SAMPLE_PASSWORD, encoded);
+      timings[i] = System.nanoTime() - start;
+    }
+    Arrays.sort(timings);
+    return Duration.ofNanos(timings[samples / 2]);
+  }
+
+  private static void printRecommendation(final String algorithm, final String settings) {
+    System.out.printf("%nRecommended settings:%n%napplication:%n  security:%n    password:%n"
+        + "      encoder: %s%n      %s%n", algorithm, settings);
+  }
+
+  private static String value(final String arg) {
+    return arg.substring(arg.indexOf('=') + 1);
+  }
+}
@@ -0,0 +1,224 @@
+package com.example.iam.security;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+/**
+ * Factory for the supported password hashing algorithms. Hashes are stored with an {@code {id}}
+ * prefix naming the algorithm, so the algorithm and its cost can change without invalidating
+ * existing hashes.
+ *
+ * <p>BCrypt and Argon2 hashes carry their cost, but PBKDF2 hashes do not, so the PBKDF2 iteration
+ * count is part of the id: {@code {pbkdf2-600000}}. Hashes of any iteration count keep verifying
+ * after the configured count changes, and are upgraded on login like those of another algorithm.
+ */
+public final class PasswordEncoders {
+
+  /**
+   * Identifier of the BCrypt algorithm.
+   */
+  public static final String BCRYPT = "bcrypt";
+
+  /**
+   * Identifier of the Argon2id algorithm.
+   */
+  public static final String ARGON2 = "argon2";
+
+  /**
+   * Identifier of the PBKDF2-HMAC-SHA256 algorithm. As a hash prefix, it marks hashes written
+   * before the iteration count was part of the id, which used {@link #LEGACY_PBKDF2_ITERATIONS}.
+   */
+  public static final String PBKDF2 = "pbkdf2";
+
+  /**
+   * Highest PBKDF2 iteration count accepted in a hash id.
+   */
+  public static final int MAX_PBKDF2_ITERATIONS = 100_000_000;
+
+  /**
+   * PBKDF2 iteration count of hashes with the bare {@code {pbkdf2}} prefix.
+   */
+  private static final int LEGACY_PBKDF2_ITERATIONS = 600_000;
+
+  /**
+   * Prefix of PBKDF2 hash ids carrying the iteration count.
+   */
+  private static final String PBKDF2_ID_PREFIX = PBKDF2 + "-";
+
+  /**
+   * Prefixes of hashes produced by one of the supported algorithms, apart from the PBKDF2 ones
+   * carrying their iteration count.
+   */
+  private static final List<String> HASH_PREFIXES = List.of(
+      "{" + BCRYPT + "}", "{" + ARGON2 + "}", "{" + PBKDF2 + "}");
+
+  /**
+   * Salt length in bytes for Argon2 and PBKDF2.
+   */
+  private static final int SALT_LENGTH = 16;
+
+  /**
+   * Argon2 hash length in bytes.
+   */
+  private static final int ARGON2_HASH_LENGTH = 32;
+
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private PasswordEncoders() {
+  }
+
+  /**
+   * Creates a BCrypt encoder.
+   *
+   * @param strength the log2 number of rounds
+   * @return the encoder
+   */
+  public static PasswordEncoder bcrypt(final int strength) {
+    return new BCryptPasswordEncoder(strength);
+  }
+
+  /**
+   * Creates an Argon2id encoder.
+   *
+   * @param memoryKib   the memory cost in KiB
+   * @param iterations  the number of iterations
+   * @param parallelism the degree of parallelism
+   * @return the encoder
+   */
+  public static PasswordEncoder argon2(final int memoryKib, final int iterations,
+      final int parallelism) {
+    return new Argon2PasswordEncoder(SALT_LENGTH, ARGON2_HASH_LENGTH, parallelism, memoryKib,
+        iterations);
+  }
+
+  /**
+   * Creates a PBKDF2-HMAC-SHA256 encoder.
+   *
+   * @param iterations the number of iterations
+   * @return the encoder
+   */
+  public static PasswordEncoder pbkdf2(final int iterations) {
+    return new Pbkdf2PasswordEncoder("", SALT_LENGTH, iterations,
+        Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+  }
+
+  /**
+   * Returns the hash id of PBKDF2 with a given iteration count.
+   *
+   * @param iterations the number of iterations
+   * @return the id, without braces
+   */
+  public static String pbkdf2Id(final int iterations) {
+    return PBKDF2_ID_PREFIX + iterations;
+  }
+
+  /**
+   * Creates an encoder hashing new passwords with one algorithm and verifying hashes of all
+   * supported algorithms. PBKDF2 hashes of an iteration count other than the configured one are
+   * verified with the count named in their id. Legacy hashes without an {@code {id}} prefix are
+   * verified as BCrypt.
+   *
+   * @param algorithm        the algorithm used for new hashes
+   * @param bcrypt           the BCrypt encoder
+   * @param argon2           the Argon2 encoder
+   * @param pbkdf2Iterations the PBKDF2 iteration count of new hashes
+   * @return the delegating encoder
+   */
+  public static DelegatingPasswordEncoder delegating(
+      final String algorithm,
+      final PasswordEncoder bcrypt,
+      final PasswordEncoder argon2,
+      final int pbkdf2Iterations) {
+    String idForEncode = PBKDF2.equals(algorithm) ? pbkdf2Id(pbkdf2Iterations) : algorithm;
+    DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(idForEncode, Map.of(
+        BCRYPT, bcrypt,
+        ARGON2, argon2,
+        PBKDF2, pbkdf2(LEGACY_PBKDF2_ITERATIONS),
+        pbkdf2Id(pbkdf2Iterations), pbkdf2(pbkdf2Iterations)));
+    encoder.setDefaultPasswordEncoderForMatches(new UnmappedHashEncoder(bcrypt));
+    return encoder;
+  }
+
+  /**
+   * Tells whether a value looks like a hash of a supported algorithm, with its {@code {id}} prefix.
+   * The hash itself is not verified.
+   *
+   * @param value the value to check
+   * @return true if the value names a supported algorithm and carries a hash
+   */
+  public static boolean isSupportedHash(final String value) {
+    if (value == null) {
+      return false;
+    }
+    for (String prefix : HASH_PREFIXES) {
+      if (value.startsWith(prefix) && value.length() > prefix.length()) {
+        return true;
+      }
+    }
+    int end = value.indexOf('}');
+    return value.startsWith("{" + PBKDF2_ID_PREFIX) && end > 0 && value.length() > end + 1
+        && pbkdf2Iterations(value.substring(1, end)) > 0;
+  }
+
+  /**
+   * Reads the iteration count of a PBKDF2 hash id.
+   *
+   * @param id the hash id, without braces
+   * @return the iteration count, or 0 if the id names no PBKDF2 cost within the accepted range
+   */
+  private static int pbkdf2Iterations(final String id) {
+    if (!id.startsWith(PBKDF2_ID_PREFIX)) {
+      return 0;
+    }
+    try {
+      int iterations = Integer.parseInt(id.substring(PBKDF2_ID_PREFIX.length()));
+      return iterations > 0 && iterations <= MAX_PBKDF2_ITERATIONS ? iterations : 0;
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  /**
+   * Verifies the hashes whose id has no registered encoder: PBKDF2 hashes of another iteration
+   * count than the configured one, and legacy BCrypt hashes without a prefix.
+   */
+  private static final class UnmappedHashEncoder implements PasswordEncoder {
+
+    /**
+     * Encoder of the legacy hashes without a prefix.
+     */
+    private final PasswordEncoder bcrypt;
+
+    /**
+     * Creates the encoder.
+     *
+     * @param bcrypt the encoder of the legacy hashes without a prefix
+     */
+    UnmappedHashEncoder(final PasswordEncoder bcrypt) {
+      this.bcrypt = bcrypt;
+    }
+
+    @Override
+    public String encode(final CharSequence rawPassword) {
+      throw new UnsupportedOperationException("New hashes are encoded by the delegating encoder");
+    }
+
+    @Override
+    public boolean matches(final CharSequence rawPassword, final String encodedPassword) {
+      if (encodedPassword == null || !encodedPassword.startsWith("{")) {
+        return bcrypt.matches(rawPassword, encodedPassword);
+      }
+      int end = encodedPassword.indexOf('}');
+      int iterations = end > 0 ? pbkdf2Iterations(encodedPassword.substring(1, end)) : 0;
+      return iterations > 0
+          && pbkdf2(iterations).matches(rawPassword, encodedPassword.substring(end + 1));
+    }
+  }
+}
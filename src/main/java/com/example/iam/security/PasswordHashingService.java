@@ -0,0 +1,186 @@
+package com.example.iam.security;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import com.example.iam.exception.ServiceOverloadedException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import reactor.core.publisher.Mono;
+
+/**
+ * Runs password hashing and verification on a dedicated, bounded executor so that the CPU-heavy
+ * work never blocks a Netty event loop. When the queue is full, requests are rejected immediately
+ * with a {@link ServiceOverloadedException} instead of piling up.
+ */
+@Service
+public final class PasswordHashingService {
+
+  /**
+   * Encoder performing the actual hashing.
+   */
+  private final PasswordEncoder passwordEncoder;
+
+  /**
+   * Executor dedicated to hashing work.
+   */
+  private final ThreadPoolExecutor executor;
+
+  /**
+   * Delay suggested to clients whose request was rejected.
+   */
+  private final Duration retryAfter;
+
+  /**
+   * Time tasks spend queued before a hashing thread picks them up.
+   */
+  private final Timer waitTimer;
+
+  /**
+   * Time spent encoding passwords.
+   */
+  private final Timer encodeTimer;
+
+  /**
+   * Time spent verifying passwords.
+   */
+  private final Timer matchTimer;
+
+  /**
+   * Number of tasks rejected because the queue was full.
+   */
+  private final Counter rejections;
+
+  /**
+   * Creates the service and its executor.
+   *
+   * @param passwordEncoder the password encoder
+   * @param meterRegistry   the registry receiving the executor metrics
+   * @param threads         the number of hashing threads, or 0 for one per available core
+   * @param queueCapacity   the maximum number of queued hashing tasks
+   * @param retryAfter      the delay suggested to rejected clients
+   */
+  public PasswordHashingService(
+      final PasswordEncoder passwordEncoder,
+      final MeterRegistry meterRegistry,
+      @Value("${application.security.password.hashing.threads:0}") final int threads,
+      @Value("${application.security.password.hashing.queue-capacity:64}") final int queueCapacity,
+      @Value("${application.security.password.hashing.retry-after:1s}") final Duration retryAfter) {
+    this.passwordEncoder = passwordEncoder;
+    this.retryAfter = retryAfter;
+
+    int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    AtomicInteger threadNumber = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity),
+        runnable -> {
+          Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        },
+        new ThreadPoolExecutor.AbortPolicy());
+
+    Gauge.builder("iam.password.hashing.queue.size", executor, e -> e.getQueue().size())
+        .description("Hashing tasks waiting for a thread")
+        .register(meterRegistry);
+    Gauge.builder("iam.password.hashing.queue.capacity", executor,
+            e -> e.getQueue().size() + e.getQueue().remainingCapacity())
+        .description("Maximum number of queued hashing tasks")
+        .register(meterRegistry);
+    Gauge.builder("iam.password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+        .description("Hashing threads currently busy")
+        .register(meterRegistry);
+    this.waitTimer = Timer.builder("iam.password.hashing.wait")
+        .description("Time hashing tasks spend queued")
+        .register(meterRegistry);
+    this.encodeTimer = Timer.builder("iam.password.hashing.duration")
+        .tag("operation", "encode")
+        .description("Time spent hashing or verifying a password")
+        .register(meterRegistry);
+    this.matchTimer = Timer.builder("iam.password.hashing.duration")
+        .tag("operation", "matches")
+        .description("Time spent hashing or verifying a password")
+        .register(meterRegistry);
+    this.rejections = Counter.builder("iam.password.hashing.rejected")
+        .description("Hashing tasks rejected because the queue was full")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Hashes a raw password off the event loop.
+   *
+   * @param rawPassword the raw password
+   * @return a mono emitting the encoded password
+   */
+  public Mono<String> encode(final CharSequence rawPassword) {
+    return submit(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+  }
+
+  /**
+   * Verifies a raw password against an encoded one off the event loop.
+   *
+   * @param rawPassword     the raw password
+   * @param encodedPassword the stored encoded password
+   * @return a mono emitting true if the passwords match
+   */
+  public Mono<Boolean> matches(final CharSequence rawPassword, final String encodedPassword) {
+    return submit(matchTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+  }
+
+  /**
+   * Tells whether a stored hash was produced with an outdated algorithm or cost.
+   *
+   * @param encodedPassword the stored encoded password
+   * @return true if the password should be rehashed
+   */
+  public boolean upgradeEncoding(final String encodedPassword) {
+    return passwordEncoder.upgradeEncoding(encodedPassword);
+  }
+
+  private <T> Mono<T> submit(final Timer timer, final Callable<T> work) {
+    return Mono.create(sink -> {
+      long queuedAt = System.nanoTime();
+      Future<?> task;
+      try {
+        task = executor.submit(() -> {
+          long startedAt = System.nanoTime();
+          waitTimer.record(startedAt - queuedAt, TimeUnit.NANOSECONDS);
+          try {
+            sink.success(work.call());
+          } catch (Exception e) {
+            sink.error(e);
+          } finally {
+            timer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+          }
+        });
+      } catch (RejectedExecutionException e) {
+        rejections.increment();
+        sink.error(new ServiceOverloadedException("Password hashing capacity exceeded", retryAfter));
+        return;
+      }
+      sink.onCancel(() -> task.cancel(false));
+    });
+  }
+
+  /**
+   * Stops the hashing threads on shutdown.
+   */
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+}
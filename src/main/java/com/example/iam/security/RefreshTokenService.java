@@ -0,0 +1,165 @@
+package com.example.iam.security;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+import com.example.iam.exception.InvalidTokenException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Tracks refresh tokens as rotating families in Redis. Each login starts a family whose Redis entry
+ * holds the id of the only refresh token currently valid in it. Refreshing swaps that id for a new
+ * one atomically; presenting any older token of the family is treated as theft and revokes the
+ * whole family.
+ */
+@Slf4j
+@Service
+public final class RefreshTokenService {
+
+  /**
+   * Prefix of the Redis keys holding the current token id of each family.
+   */
+  private static final String FAMILY_KEY_PREFIX = "iam:refresh:";
+
+  /**
+   * Rotation outcome: the presented token was current and has been replaced.
+   */
+  private static final long ROTATED = 1L;
+
+  /**
+   * Rotation outcome: the presented token was already rotated; the family has been revoked.
+   */
+  private static final long REUSED = -1L;
+
+  /**
+   * Compare-and-set of the current token id. Returns {@value #ROTATED} on success,
+   * {@value #REUSED} after revoking a family presented with a stale id, and 0 for an unknown,
+   * expired or revoked family.
+   */
+  private static final RedisScript<Long> ROTATE_SCRIPT = RedisScript.of("""
+      local current = redis.call('GET', KEYS[1])
+      if current == ARGV[1] then
+        redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+        return 1
+      end
+      if current then
+        redis.call('DEL', KEYS[1])
+        return -1
+      end
+      return 0
+      """, Long.class);
+
+  /**
+   * Service building the refresh tokens.
+   */
+  private final JwtService jwtService;
+
+  /**
+   * Template holding the family entries.
+   */
+  private final ReactiveStringRedisTemplate redisTemplate;
+
+  /**
+   * Counter of successful rotations.
+   */
+  private final Counter rotations;
+
+  /**
+   * Counter of detected refresh token reuses.
+   */
+  private final Counter reuses;
+
+  /**
+   * Counter of refresh attempts on unknown, expired or revoked families.
+   */
+  private final Counter unknownFamilies;
+
+  /**
+   * Creates the service.
+   *
+   * @param jwtService    the JWT service
+   * @param redisTemplate the Redis template holding the families
+   * @param meterRegistry the registry receiving the rotation metrics
+   */
+  public RefreshTokenService(
+      final JwtService jwtService,
+      final ReactiveStringRedisTemplate redisTemplate,
+      final MeterRegistry meterRegistry) {
+    this.jwtService = jwtService;
+    this.redisTemplate = redisTemplate;
+    this.rotations = meterRegistry.counter("iam.refresh.rotations", "result", "rotated");
+    this.reuses = meterRegistry.counter("iam.refresh.rotations", "result", "reused");
+    this.unknownFamilies = meterRegistry.counter("iam.refresh.rotations", "result", "unknown");
+  }
+
+  /**
+   * Starts a new token family for a freshly authenticated user.
+   *
+   * @param userDetails the authenticated user
+   * @return a mono emitting the first refresh token of the family
+   */
+  public Mono<String> issue(final UserDetails userDetails) {
+    String familyId = UUID.randomUUID().toString();
+    String tokenId = UUID.randomUUID().toString();
+    return redisTemplate.opsForValue()
+        .set(familyKey(familyId), tokenId, jwtService.getRefreshTokenLifetime())
+        .thenReturn(jwtService.generateRefreshToken(userDetails, familyId, tokenId));
+  }
+
+  /**
+   * Replaces a verified refresh token with the next token of its family.
+   *
+   * @param claims      the verified claims of the presented refresh token
+   * @param userDetails the token's user
+   * @return a mono emitting the new refresh token, or an {@link InvalidTokenException} if the
+   *         token is not the current one of a live family
+   */
+  public Mono<String> rotate(final TokenClaims claims, final UserDetails userDetails) {
+    String familyId = claims.get(TokenClaims.FAMILY_ID, String.class);
+    if (!claims.isRefreshToken() || familyId == null || claims.id() == null) {
+      return Mono.error(new InvalidTokenException());
+    }
+    String tokenId = UUID.randomUUID().toString();
+    List<String> args = List.of(claims.id(), tokenId,
+        String.valueOf(jwtService.getRefreshTokenLifetime().toMillis()));
+    return redisTemplate.execute(ROTATE_SCRIPT, List.of(familyKey(familyId)), args)
+        .next()
+        .flatMap(outcome -> {
+          if (outcome == ROTATED) {
+            rotations.increment();
+            return Mono.just(jwtService.generateRefreshToken(userDetails, familyId, tokenId));
+          }
+          if (outcome == REUSED) {
+            reuses.increment();
+            log.warn("Refresh token reuse detected for {}; revoked token family {}",
+                claims.subject(), familyId);
+          } else {
+            unknownFamilies.increment();
+          }
+          return Mono.error(new InvalidTokenException());
+        });
+  }
+
+  /**
+   * Revokes a whole token family, so none of its refresh tokens can be exchanged any more.
+   *
+   * @param familyId the id of the token family
+   * @return a mono completing once the family is removed
+   */
+  public Mono<Void> revokeFamily(final String familyId) {
+    return redisTemplate.delete(familyKey(familyId)).then();
+  }
+
+  private static String familyKey(final String familyId) {
+    return FAMILY_KEY_PREFIX + familyId;
+  }
+}
@@ -0,0 +1,431 @@
+package com.example.iam.security;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.EncodedKeySpec;
+import java.security.spec.InvalidKeySpecException;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.crypto.SecretKey;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.Locator;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Keys used to sign and verify tokens.
+ *
+ * <p>Without a key directory, tokens are signed with the shared HMAC secret and carry no key id.
+ * With a key directory, tokens are signed asymmetrically (RS256, ES256 or EdDSA, depending on the
+ * key type) and carry the key id in their {@code kid} header. The directory holds a
+ * {@code <kid>.pub.pem} public key (X.509) for every key that still verifies tokens, and a
+ * {@code <kid>.key.pem} private key (PKCS#8) for keys that may sign. New tokens are signed with the
+ * key named by {@code application.security.jwt.keys.active}, which is required with a key
+ * directory. The directory is reloaded periodically, so adding a pair only publishes its public key.
+ * Verifiers cache the JWKS, so a new key may only become active once it has been published for
+ * longer than the JWKS max-age plus the reload interval; otherwise they reject its tokens until
+ * their cache expires. A key is retired by deleting its private key once another key is active,
+ * and its public key once the tokens it signed have expired.
+ *
+ * <p>Tokens signed with the HMAC secret before the switch to a key directory carry no key id. They
+ * are still verified with the secret until {@code application.security.jwt.keys.hmac-accepted-until},
+ * so the switch does not log every user out. That instant is required with a key directory and is
+ * absolute, so restarts never extend the window in which the shared secret can mint tokens.
+ */
+@Slf4j
+@Component
+public final class SigningKeyRing {
+
+  /**
+   * File name suffix of public keys.
+   */
+  private static final String PUBLIC_KEY_SUFFIX = ".pub.pem";
+
+  /**
+   * File name suffix of private keys.
+   */
+  private static final String PRIVATE_KEY_SUFFIX = ".key.pem";
+
+  /**
+   * Key factory algorithms tried, in order, when decoding a key.
+   */
+  private static final List<String> KEY_ALGORITHMS = List.of("RSA", "EC", "Ed25519");
+
+  /**
+   * Field size in bits of the P-256 curve.
+   */
+  private static final int P256_FIELD_SIZE = 256;
+
+  /**
+   * Field size in bits of the P-384 curve.
+   */
+  private static final int P384_FIELD_SIZE = 384;
+
+  /**
+   * Field size in bits of the P-521 curve.
+   */
+  private static final int P521_FIELD_SIZE = 521;
+
+  /**
+   * Shared HMAC secret, used when no key directory is configured.
+   */
+  private final SecretKey hmacKey;
+
+  /**
+   * Directory holding the asymmetric keys, or null in HMAC mode.
+   */
+  private final Path keyDirectory;
+
+  /**
+   * Id of the key that signs new tokens, or null in HMAC mode.
+   */
+  private final String activeKeyId;
+
+  /**
+   * Delay between two reloads of the key directory.
+   */
+  private final Duration reloadInterval;
+
+  /**
+   * Time until which tokens without a key id are verified with the HMAC secret in asymmetric mode.
+   */
+  private final Instant hmacAcceptedUntil;
+
+  /**
+   * Locator resolving the verification key of a token from its header.
+   */
+  private final Locator<Key> keyLocator = new LocatorAdapter<>() {
+    @Override
+    protected Key locate(final JwsHeader header) {
+      return verificationKey(header.getKeyId());
+    }
+  };
+
+  /**
+   * Current key set, replaced as a whole on reload.
+   */
+  private volatile KeySet keySet;
+
+  /**
+   * Subscription to the reload schedule.
+   */
+  private Disposable reloads;
+
+  /**
+   * Creates the key ring and loads the keys, failing if the key directory holds no usable pair.
+   *
+   * @param secretKey         the Base64-encoded HMAC secret
+   * @param keyLocation       the key directory, or empty to sign with the HMAC secret
+   * @param activeKeyId       the id of the key signing new tokens; required with a key directory
+   * @param reloadInterval    the delay between two reloads of the key directory
+   * @param hmacAcceptedUntil the ISO-8601 instant until which HMAC tokens are still verified in
+   *                          asymmetric mode; required with a key directory
+   * @throws IOException              if the key directory cannot be read
+   * @throws GeneralSecurityException if a key cannot be decoded
+   */
+  public SigningKeyRing(
+      @Value("${application.security.jwt.secret-key}") final String secretKey,
+      @Value("${application.security.jwt.keys.location:}") final String keyLocation,
+      @Value("${application.security.jwt.keys.active:}") final String activeKeyId,
+      @Value("${application.security.jwt.keys.reload-interval:1m}") final Duration reloadInterval,
+      @Value("${application.security.jwt.keys.hmac-accepted-until:}") final String hmacAcceptedUntil)
+      throws IOException, GeneralSecurityException {
+    this.hmacKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+    this.keyDirectory = StringUtils.hasText(keyLocation) ? Path.of(keyLocation) : null;
+    this.activeKeyId = StringUtils.hasText(activeKeyId) ? activeKeyId : null;
+    if (keyDirectory != null && this.activeKeyId == null) {
+      throw new IllegalStateException("application.security.jwt.keys.active must name the signing key"
+          + " when signing with a key directory");
+    }
+    this.reloadInterval = reloadInterval;
+    if (keyDirectory != null && !StringUtils.hasText(hmacAcceptedUntil)) {
+      throw new IllegalStateException("application.security.jwt.keys.hmac-accepted-until must be set"
+          + " when signing with a key directory: use the switch time plus the refresh token"
+          + " lifetime, or a past instant if no token was ever signed with the secret");
+    }
+    this.hmacAcceptedUntil = StringUtils.hasText(hmacAcceptedUntil)
+        ? Instant.parse(hmacAcceptedUntil)
+        : Instant.MIN;
+    this.keySet = keyDirectory != null ? load(keyDirectory, this.activeKeyId) : KeySet.HMAC;
+  }
+
+  /**
+   * Starts reloading the key directory periodically.
+   */
+  @PostConstruct
+  public void start() {
+    if (keyDirectory == null) {
+      return;
+    }
+    reloads = Flux.interval(reloadInterval, reloadInterval)
+        .concatMap(tick -> Mono.fromCallable(() -> load(keyDirectory, activeKeyId))
+            .subscribeOn(Schedulers.boundedElastic())
+            .doOnNext(this::replace)
+            .onErrorResume(e -> {
+              log.warn("Failed to reload signing keys from {}, keeping the current keys: {}",
+                  keyDirectory, e.getMessage());
+              return Mono.empty();
+            }))
+        .subscribe();
+  }
+
+  /**
+   * Stops reloading the key directory.
+   */
+  @PreDestroy
+  public void stop() {
+    if (reloads != null) {
+      reloads.dispose();
+    }
+  }
+
+  /**
+   * Signs a token with the current signing key, setting its {@code kid} header in asymmetric mode.
+   *
+   * @param builder the token builder
+   * @return the builder
+   */
+  public JwtBuilder sign(final JwtBuilder builder) {
+    KeySet current = keySet;
+    if (current.signingKey() == null) {
+      return builder.signWith(hmacKey);
+    }
+    return builder
+        .header().keyId(current.signingKeyId()).and()
+        .signWith(current.signingKey(), current.signingAlgorithm());
+  }
+
+  /**
+   * Returns the locator resolving the verification key of a token from its {@code kid} header.
+   *
+   * @return the key locator
+   */
+  public Locator<Key> keyLocator() {
+    return keyLocator;
+  }
+
+  /**
+   * Returns the public keys as a JSON Web Key Set. The document is built once per reload.
+   *
+   * @return the JWKS document, with no keys in HMAC mode
+   */
+  public String jwks() {
+    return keySet.jwks();
+  }
+
+  /**
+   * Returns an entity tag identifying the current JWKS document.
+   *
+   * @return the quoted entity tag
+   */
+  public String jwksETag() {
+    return keySet.jwksETag();
+  }
+
+  private Key verificationKey(final String keyId) {
+    KeySet current = keySet;
+    if (current.signingKey() == null) {
+      if (keyId != null) {
+        throw new UnsupportedJwtException("Unexpected key id: " + keyId);
+      }
+      return hmacKey;
+    }
+    if (keyId == null) {
+      if (Instant.now().isBefore(hmacAcceptedUntil)) {
+        return hmacKey;
+      }
+      throw new UnsupportedJwtException("Missing key id");
+    }
+    PublicKey key = current.verificationKeys().get(keyId);
+    if (key == null) {
+      throw new UnsupportedJwtException("Unknown key id: " + keyId);
+    }
+    return key;
+  }
+
+  private void replace(final KeySet loaded) {
+    KeySet previous = keySet;
+    keySet = loaded;
+    if (!loaded.verificationKeys().keySet().equals(previous.verificationKeys().keySet())
+        || !loaded.signingKeyId().equals(previous.signingKeyId())) {
+      log.info("Signing keys reloaded: signing with {}, verifying with {}",
+          loaded.signingKeyId(), loaded.verificationKeys().keySet());
+    }
+  }
+
+  /**
+   * Loads the keys of a directory.
+   *
+   * @param directory   the key directory
+   * @param activeKeyId the id of the key signing new tokens
+   * @return the key set
+   * @throws IOException              if the directory cannot be read
+   * @throws GeneralSecurityException if a key cannot be decoded
+   */
+  private static KeySet load(final Path directory, final String activeKeyId)
+      throws IOException, GeneralSecurityException {
+    Map<String, PublicKey> publicKeys = new TreeMap<>();
+    Map<String, PrivateKey> privateKeys = new TreeMap<>();
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.pem")) {
+      for (Path file : files) {
+        String name = file.getFileName().toString();
+        if (name.endsWith(PUBLIC_KEY_SUFFIX)) {
+          publicKeys.put(keyId(name, PUBLIC_KEY_SUFFIX),
+              decode(file, X509EncodedKeySpec::new, KeyFactory::generatePublic));
+        } else if (name.endsWith(PRIVATE_KEY_SUFFIX)) {
+          privateKeys.put(keyId(name, PRIVATE_KEY_SUFFIX),
+              decode(file, PKCS8EncodedKeySpec::new, KeyFactory::generatePrivate));
+        }
+      }
+    }
+
+    if (!privateKeys.containsKey(activeKeyId) || !publicKeys.containsKey(activeKeyId)) {
+      throw new IllegalStateException("Active key " + activeKeyId + " needs both "
+          + PUBLIC_KEY_SUFFIX + " and " + PRIVATE_KEY_SUFFIX + " files in " + directory);
+    }
+
+    String jwks = publicKeys.entrySet().stream()
+        .map(entry -> Jwks.json(Jwks.builder().<PublicKey, PrivateKey>key(entry.getValue())
+            .id(entry.getKey())
+            .algorithm(algorithmFor(entry.getValue()).getId())
+            .publicKeyUse("sig")
+            .build()))
+        .collect(Collectors.joining(",", "{\"keys\":[", "]}"));
+
+    return new KeySet(
+        activeKeyId,
+        privateKeys.get(activeKeyId),
+        algorithmFor(publicKeys.get(activeKeyId)),
+        Map.copyOf(publicKeys),
+        jwks,
+        eTag(jwks));
+  }
+
+  private static SignatureAlgorithm algorithmFor(final PublicKey key) {
+    if (key instanceof RSAPublicKey) {
+      return Jwts.SIG.RS256;
+    }
+    if (key instanceof ECPublicKey ecKey) {
+      int fieldSize = ecKey.getParams().getCurve().getField().getFieldSize();
+      return switch (fieldSize) {
+        case P256_FIELD_SIZE -> Jwts.SIG.ES256;
+        case P384_FIELD_SIZE -> Jwts.SIG.ES384;
+        case P521_FIELD_SIZE -> Jwts.SIG.ES512;
+        default -> throw new IllegalArgumentException("Unsupported EC curve size: " + fieldSize);
+      };
+    }
+    if ("EdDSA".equals(key.getAlgorithm()) || "Ed25519".equals(key.getAlgorithm())) {
+      return Jwts.SIG.EdDSA;
+    }
+    throw new IllegalArgumentException("Unsupported key algorithm: " + key.getAlgorithm());
+  }
+
+  private static <K extends Key> K decode(
+      final Path file,
+      final Function<byte[], EncodedKeySpec> specFactory,
+      final KeyGenerator<K> generator) throws IOException, GeneralSecurityException {
+    String base64 = Files.readString(file)
+        .replaceAll("-----[A-Z ]+-----", "")
+        .replaceAll("\\s", "");
+    EncodedKeySpec spec = specFactory.apply(Base64.getDecoder().decode(base64));
+    for (String algorithm : KEY_ALGORITHMS) {
+      try {
+        return generator.generate(KeyFactory.getInstance(algorithm), spec);
+      } catch (InvalidKeySpecException e) {
+        log.trace("{} is not an {} key", file, algorithm);
+      }
+    }
+    throw new InvalidKeySpecException("Unsupported key in " + file);
+  }
+
+  private static String keyId(final String fileName, final String suffix) {
+    return fileName.substring(0, fileName.length() - suffix.length());
+  }
+
+  private static String eTag(final String document) {
+    return "\"" + DigestUtils.md5DigestAsHex(document.getBytes(StandardCharsets.UTF_8)) + "\"";
+  }
+
+  /**
+   * Key generation step of a {@link KeyFactory}.
+   *
+   * @param <K> type of the generated key
+   */
+  @FunctionalInterface
+  private interface KeyGenerator<K extends Key> {
+
+    /**
+     * Generates a key from its encoded specification.
+     *
+     * @param factory the key factory
+     * @param spec    the encoded key
+     * @return the key
+     * @throws InvalidKeySpecException if the encoding does not match the factory's algorithm
+     */
+    K generate(KeyFactory factory, EncodedKeySpec spec) throws InvalidKeySpecException;
+  }
+
+  /**
+   * Immutable snapshot of the keys.
+   *
+   * @param signingKeyId     the id of the signing key, or null in HMAC mode
+   * @param signingKey       the private signing key, or null in HMAC mode
+   * @param signingAlgorithm the signature algorithm of the signing key, or null in HMAC mode
+   * @param verificationKeys the public keys by key id
+   * @param jwks             the JWKS document
+   * @param jwksETag         the entity tag of the JWKS document
+   */
+  private record KeySet(
+      String signingKeyId,
+      PrivateKey signingKey,
+      SignatureAlgorithm signingAlgorithm,
+      Map<String, PublicKey> verificationKeys,
+      String jwks,
+      String jwksETag
+  ) {
+
+    /**
+     * Key set of the HMAC mode, which publishes no keys.
+     */
+    static final KeySet HMAC = new KeySet(null, null, null, Map.of(), "{\"keys\":[]}",
+        eTag("{\"keys\":[]}"));
+  }
+}
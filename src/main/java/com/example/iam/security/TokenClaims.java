@@ -0,0 +1,152 @@
+package com.example.iam.security;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Immutable snapshot of the claims of a token whose signature has already been verified.
+ *
+ * @param id         the token id ({@code jti}), or null if absent
+ * @param subject    the token subject (the user's email)
+ * @param issuedAt   the instant the token was issued, or null if absent
+ * @param expiration the instant the token expires, or null if absent
+ * @param claims     the custom (non-registered) claims carried by the token
+ */
+public record TokenClaims(
+    String id,
+    String subject,
+    Instant issuedAt,
+    Instant expiration,
+    Map<String, Object> claims
+) {
+
+  /**
+   * Claim carrying the token type.
+   */
+  public static final String TOKEN_TYPE = "token_type";
+
+  /**
+   * Token type of access tokens.
+   */
+  public static final String ACCESS_TOKEN = "access";
+
+  /**
+   * Token type of refresh tokens.
+   */
+  public static final String REFRESH_TOKEN = "refresh";
+
+  /**
+   * Claim carrying the id of the refresh token family a refresh token belongs to.
+   */
+  public static final String FAMILY_ID = "fid";
+
+  /**
+   * Claim carrying the user's id.
+   */
+  public static final String USER_ID = "uid";
+
+  /**
+   * Claim carrying the user's granted authorities.
+   */
+  public static final String AUTHORITIES = "authorities";
+
+  /**
+   * Claim carrying the user's entity version at issuance.
+   */
+  public static final String VERSION = "ver";
+
+  /**
+   * Claim carrying the user's enabled flag.
+   */
+  public static final String ENABLED = "enabled";
+
+  /**
+   * Claim carrying the user's account-non-locked flag.
+   */
+  public static final String ACCOUNT_NON_LOCKED = "account_non_locked";
+
+  /**
+   * Claim carrying the user's account-non-expired flag.
+   */
+  public static final String ACCOUNT_NON_EXPIRED = "account_non_expired";
+
+  /**
+   * Claim carrying the user's credentials-non-expired flag.
+   */
+  public static final String CREDENTIALS_NON_EXPIRED = "credentials_non_expired";
+
+  /**
+   * Registered claim names that are exposed through dedicated components.
+   */
+  private static final Set<String> REGISTERED_CLAIMS = Set.of(
+      Claims.ID, Claims.SUBJECT, Claims.ISSUED_AT, Claims.EXPIRATION);
+
+  /**
+   * Creates a snapshot from verified JWT claims.
+   *
+   * @param claims the verified claims
+   * @return the immutable claims snapshot
+   */
+  public static TokenClaims from(final Claims claims) {
+    Map<String, Object> custom = new HashMap<>();
+    claims.forEach((name, value) -> {
+      if (value != null && !REGISTERED_CLAIMS.contains(name)) {
+        custom.put(name, value);
+      }
+    });
+    return new TokenClaims(
+        claims.getId(),
+        claims.getSubject(),
+        claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+        claims.getExpiration() != null ? claims.getExpiration().toInstant() : null,
+        Map.copyOf(custom));
+  }
+
+  /**
+   * Checks whether the token is expired at the given instant.
+   *
+   * @param now the instant to check against
+   * @return true if the token has an expiration that is not after now
+   */
+  public boolean isExpired(final Instant now) {
+    return expiration != null && !expiration.isAfter(now);
+  }
+
+  /**
+   * Tells whether this is a refresh token, which must not be accepted as a bearer token.
+   *
+   * @return true if the token type is {@value #REFRESH_TOKEN}
+   */
+  public boolean isRefreshToken() {
+    return REFRESH_TOKEN.equals(claims.get(TOKEN_TYPE));
+  }
+
+  /**
+   * Checks the account-state flags embedded at issuance.
+   *
+   * @return true if the account was enabled, unlocked and unexpired when the token was issued
+   */
+  public boolean isAccountActive() {
+    return Boolean.TRUE.equals(claims.get(ENABLED))
+        && Boolean.TRUE.equals(claims.get(ACCOUNT_NON_LOCKED))
+        && Boolean.TRUE.equals(claims.get(ACCOUNT_NON_EXPIRED))
+        && Boolean.TRUE.equals(claims.get(CREDENTIALS_NON_EXPIRED));
+  }
+
+  /**
+   * Returns a custom claim converted to the requested type.
+   *
+   * @param name the claim name
+   * @param type the expected claim type
+   * @param <T>  type of the claim
+   * @return the claim value, or null if absent or of a different type
+   */
+  public <T> T get(final String name, final Class<T> type) {
+    Object value = claims.get(name);
+    return type.isInstance(value) ? type.cast(value) : null;
+  }
+}
@@ -0,0 +1,28 @@
+package com.example.iam.security;
+
+import java.util.Collection;
+import java.util.UUID;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * Principal reconstructed from the claims of a verified token, without a database lookup.
+ *
+ * @param id          the user's id
+ * @param username    the user's email
+ * @param authorities the authorities granted at token issuance
+ * @param version     the user's entity version at token issuance
+ */
+public record TokenPrincipal(
+    UUID id,
+    String username,
+    Collection<? extends GrantedAuthority> authorities,
+    long version
+) implements AuthenticatedPrincipal {
+
+  @Override
+  public String getName() {
+    return username;
+  }
+}
@@ -0,0 +1,315 @@
+package com.example.iam.security;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.redis.connection.ReactiveSubscription;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * Denylist of revoked token ids. Each revoked {@code jti} is stored in Redis until the token would
+ * have expired anyway and broadcast to all nodes, which keep a Bloom filter of revoked ids. Only
+ * ids the filter reports as probably revoked are checked against Redis, so a token that was never
+ * revoked is accepted without a network call.
+ *
+ * <p>The filter is seeded from Redis before the node reports itself ready, so tokens revoked before
+ * a restart are not accepted while it loads, and rebuilt periodically, which both repairs missed
+ * broadcasts and sheds ids whose tokens have expired.
+ */
+@Slf4j
+@Service
+public final class TokenRevocationService implements ApplicationRunner {
+
+  /**
+   * Prefix of the Redis keys marking revoked token ids.
+   */
+  private static final String REVOKED_KEY_PREFIX = "iam:revoked:";
+
+  /**
+   * Redis channel on which revoked token ids are broadcast.
+   */
+  private static final String REVOCATION_CHANNEL = "iam:tokens:revoked";
+
+  /**
+   * Number of keys requested per SCAN call while rebuilding the filter.
+   */
+  private static final long SCAN_BATCH_SIZE = 1000;
+
+  /**
+   * First delay before resubscribing to the revocation channel.
+   */
+  private static final Duration RESUBSCRIBE_MIN_BACKOFF = Duration.ofSeconds(1);
+
+  /**
+   * Longest delay between attempts to resubscribe to the revocation channel.
+   */
+  private static final Duration RESUBSCRIBE_MAX_BACKOFF = Duration.ofSeconds(30);
+
+  /**
+   * Shared result for ids the filter rules out.
+   */
+  private static final Mono<Boolean> NOT_REVOKED = Mono.just(false);
+
+  /**
+   * Template holding the denylist.
+   */
+  private final ReactiveStringRedisTemplate redisTemplate;
+
+  /**
+   * Number of revocations each filter is sized for.
+   */
+  private final long expectedRevocations;
+
+  /**
+   * Target false-positive rate of the filter.
+   */
+  private final double falsePositiveRate;
+
+  /**
+   * Delay between two rebuilds of the filter.
+   */
+  private final Duration rebuildInterval;
+
+  /**
+   * How long seeding the filter may delay readiness.
+   */
+  private final Duration loadTimeout;
+
+  /**
+   * Guards the filter swap, so that a revocation lands in the filter that stays in place.
+   */
+  private final Object filterLock = new Object();
+
+  /**
+   * Counter of ids the filter reported as probably revoked.
+   */
+  private final Counter probableHits;
+
+  /**
+   * Counter of probable hits that Redis did not confirm.
+   */
+  private final Counter falsePositives;
+
+  /**
+   * Filter consulted on every request.
+   */
+  private volatile BloomFilter filter;
+
+  /**
+   * Filter being rebuilt, which also receives revocations arriving during the rebuild. Guarded by
+   * {@link #filterLock}.
+   */
+  private BloomFilter pendingFilter;
+
+  /**
+   * Subscriptions to the revocation channel and the rebuild schedule.
+   */
+  private final Disposable.Composite subscriptions = Disposables.composite();
+
+  /**
+   * Creates the service.
+   *
+   * @param redisTemplate       the Redis template holding the denylist
+   * @param meterRegistry       the registry receiving the filter metrics
+   * @param expectedRevocations the number of live revocations the filter is sized for
+   * @param falsePositiveRate   the target false-positive rate of the filter
+   * @param rebuildInterval     the delay between two rebuilds of the filter
+   * @param loadTimeout         how long seeding the filter may delay readiness
+   */
+  public TokenRevocationService(
+      final ReactiveStringRedisTemplate redisTemplate,
+      final MeterRegistry meterRegistry,
+      @Value("${application.security.revocation.expected-revocations:100000}")
+      final long expectedRevocations,
+      @Value("${application.security.revocation.false-positive-rate:0.001}")
+      final double falsePositiveRate,
+      @Value("${application.security.revocation.rebuild-interval:15m}")
+      final Duration rebuildInterval,
+      @Value("${application.security.revocation.load-timeout:30s}") final Duration loadTimeout) {
+    this.redisTemplate = redisTemplate;
+    this.expectedRevocations = expectedRevocations;
+    this.falsePositiveRate = falsePositiveRate;
+    this.rebuildInterval = rebuildInterval;
+    this.loadTimeout = loadTimeout;
+    this.filter = new BloomFilter(expectedRevocations, falsePositiveRate);
+    this.probableHits = meterRegistry.counter("iam.revocation.filter", "result", "probable");
+    this.falsePositives = meterRegistry.counter("iam.revocation.filter", "result",
+        "false_positive");
+  }
+
+  /**
+   * Subscribes to revocations broadcast by other nodes, before the filter is seeded so that none
+   * is missed in between.
+   */
+  @PostConstruct
+  public void start() {
+    subscriptions.add(redisTemplate.listenToChannel(REVOCATION_CHANNEL)
+        .map(ReactiveSubscription.Message::getMessage)
+        .doOnNext(this::remember)
+        .retryWhen(Retry.backoff(Long.MAX_VALUE, RESUBSCRIBE_MIN_BACKOFF)
+            .maxBackoff(RESUBSCRIBE_MAX_BACKOFF)
+            .doBeforeRetry(signal -> log.warn("Token revocation channel unavailable: {}",
+                signal.failure().getMessage())))
+        .subscribe());
+  }
+
+  /**
+   * Seeds the filter before the node reports itself ready, then schedules the rebuilds. A failed
+   * seed is logged; the next rebuild retries it.
+   *
+   * @param args the application arguments
+   */
+  @Override
+  public void run(final ApplicationArguments args) {
+    try {
+      Long loaded = rebuild().block(loadTimeout);
+      if (loaded != null) {
+        log.info("Loaded {} revoked token ids", loaded);
+      }
+    } catch (RuntimeException e) {
+      log.warn("Failed to load revoked token ids: {}", e.getMessage());
+    }
+    subscriptions.add(Flux.interval(rebuildInterval, rebuildInterval)
+        .concatMap(tick -> rebuild())
+        .subscribe());
+  }
+
+  /**
+   * Stops listening for revocations and rebuilding the filter.
+   */
+  @PreDestroy
+  public void stop() {
+    subscriptions.dispose();
+  }
+
+  /**
+   * Revokes a token until it expires.
+   *
+   * @param tokenId   the token id
+   * @param expiresAt the token expiration
+   * @return a mono completing once the revocation is stored and broadcast
+   */
+  public Mono<Void> revoke(final String tokenId, final Instant expiresAt) {
+    Duration remaining = Duration.between(Instant.now(), expiresAt);
+    if (remaining.isNegative() || remaining.isZero()) {
+      return Mono.empty();
+    }
+    remember(tokenId);
+    // Remembered again once stored: a rebuild whose scan started before the write misses the key,
+    // but has then already started, so the id reaches the filter it swaps in.
+    return redisTemplate.opsForValue().set(revokedKey(tokenId), "1", remaining)
+        .doOnSuccess(stored -> remember(tokenId))
+        .then(redisTemplate.convertAndSend(REVOCATION_CHANNEL, tokenId))
+        .then();
+  }
+
+  /**
+   * Tells, without any I/O, whether a token id might be revoked.
+   *
+   * @param tokenId the token id, or null for tokens issued without one
+   * @return false if the token is definitely not revoked
+   */
+  public boolean mightBeRevoked(final String tokenId) {
+    return tokenId != null && filter.mightContain(tokenId);
+  }
+
+  /**
+   * Tells whether a token id is revoked, asking Redis only when the filter cannot rule it out. If
+   * Redis cannot confirm a probable hit, the token is treated as revoked.
+   *
+   * @param tokenId the token id, or null for tokens issued without one
+   * @return a mono emitting true if the token is revoked
+   */
+  public Mono<Boolean> isRevoked(final String tokenId) {
+    if (!mightBeRevoked(tokenId)) {
+      return NOT_REVOKED;
+    }
+    probableHits.increment();
+    return redisTemplate.hasKey(revokedKey(tokenId))
+        .doOnNext(revoked -> {
+          if (!revoked) {
+            falsePositives.increment();
+          }
+        })
+        .onErrorResume(e -> {
+          log.warn("Cannot check revocation of token {}: {}", tokenId, e.getMessage());
+          return Mono.just(true);
+        });
+  }
+
+  private void remember(final String tokenId) {
+    synchronized (filterLock) {
+      filter.put(tokenId);
+      if (pendingFilter != null) {
+        pendingFilter.put(tokenId);
+      }
+    }
+  }
+
+  /**
+   * Rebuilds the filter from the ids currently stored in Redis, dropping expired ones. Revocations
+   * received during the rebuild go to both filters, and the swap holds the same lock as
+   * {@link #remember(String)}, so none is lost by the swap.
+   *
+   * @return a mono emitting the number of ids loaded once the new filter is in place, or empty if
+   *     the rebuild failed
+   */
+  private Mono<Long> rebuild() {
+    BloomFilter rebuilt = new BloomFilter(expectedRevocations, falsePositiveRate);
+    synchronized (filterLock) {
+      pendingFilter = rebuilt;
+    }
+    ScanOptions options = ScanOptions.scanOptions()
+        .match(REVOKED_KEY_PREFIX + "*")
+        .count(SCAN_BATCH_SIZE)
+        .build();
+    return redisTemplate.scan(options)
+        .doOnNext(key -> rebuilt.put(key.substring(REVOKED_KEY_PREFIX.length())))
+        .count()
+        .doOnNext(count -> {
+          synchronized (filterLock) {
+            filter = rebuilt;
+            pendingFilter = null;
+          }
+          log.debug("Rebuilt token revocation filter with {} ids", count);
+        })
+        .onErrorResume(e -> {
+          log.warn("Failed to rebuild token revocation filter: {}", e.getMessage());
+          return Mono.empty();
+        })
+        .doFinally(signal -> clearPending(rebuilt));
+  }
+
+  /**
+   * Stops feeding a filter whose rebuild failed or was cancelled.
+   *
+   * @param rebuilt the filter of the rebuild that ended
+   */
+  private void clearPending(final BloomFilter rebuilt) {
+    synchronized (filterLock) {
+      if (pendingFilter == rebuilt) {
+        pendingFilter = null;
+      }
+    }
+  }
+
+  private static String revokedKey(final String tokenId) {
+    return REVOKED_KEY_PREFIX + tokenId;
+  }
+}
@@ -0,0 +1,62 @@
+package com.example.iam.security;
+
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.r2dbc.mapping.OutboundRow;
+import org.springframework.data.r2dbc.mapping.event.AfterSaveCallback;
+import org.springframework.data.relational.core.sql.SqlIdentifier;
+import org.springframework.stereotype.Component;
+
+import com.example.iam.cache.TwoTierUserDetailsService;
+import com.example.iam.cache.UserInvalidation;
+import com.example.iam.domain.user.User;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * Entity callback recording every saved user's version, so that tokens carrying an older version
+ * stop being accepted once the account changes. Updates are also broadcast so that every node drops
+ * its cached copy of the user.
+ */
+@Component
+@RequiredArgsConstructor
+public final class UserVersionCallback implements AfterSaveCallback<User> {
+
+  /**
+   * Registry of the latest known user versions.
+   */
+  private final UserVersionRegistry userVersionRegistry;
+
+  /**
+   * Cache of user details that must forget updated users, looked up lazily because the cache
+   * depends on the repository whose entity template runs this callback.
+   */
+  private final ObjectProvider<TwoTierUserDetailsService> userDetailsCache;
+
+  /**
+   * Records the version of the saved user and invalidates cached copies of updated users.
+   *
+   * @param entity       the saved user
+   * @param outboundRow  the row that was written
+   * @param table        the table that was written to
+   * @return the saved user
+   */
+  @Override
+  public @NonNull Publisher<User> onAfterSave(
+      final @NonNull User entity,
+      final @NonNull OutboundRow outboundRow,
+      final @NonNull SqlIdentifier table) {
+    if (entity.getId() == null || entity.getVersion() == null) {
+      return Mono.just(entity);
+    }
+    if (entity.getVersion() == 0) {
+      userVersionRegistry.recordVersion(entity.getId(), entity.getVersion());
+      return Mono.just(entity);
+    }
+    return userDetailsCache.getObject().invalidate(
+            new UserInvalidation(entity.getId(), entity.getEmail(), entity.getVersion()))
+        .thenReturn(entity);
+  }
+}
@@ -0,0 +1,212 @@
+package com.example.iam.security;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Tracks the latest known entity version of users whose accounts changed, so that tokens issued
+ * against an older version can be rejected without loading the user.
+ *
+ * <p>Versions are checked in memory, but every change is also stored in Redis for the lifetime of
+ * an access token, after which no token of an older version can still be valid. A starting node
+ * loads the stored versions before it reports itself ready, and reloads them periodically to
+ * repair missed invalidation broadcasts, so a restart or a new node does not reopen the fence.
+ */
+@Slf4j
+@Component
+public final class UserVersionRegistry implements ApplicationRunner {
+
+  /**
+   * Prefix of the Redis keys holding user versions.
+   */
+  private static final String VERSION_KEY_PREFIX = "iam:user-version:";
+
+  /**
+   * Number of keys requested per SCAN call and read per MGET while loading.
+   */
+  private static final int SCAN_BATCH_SIZE = 1000;
+
+  /**
+   * Sets the stored version unless a newer one is already stored, refreshing its time to live.
+   */
+  private static final RedisScript<Long> RECORD_SCRIPT = RedisScript.of("""
+      local current = tonumber(redis.call('GET', KEYS[1]))
+      if current and current >= tonumber(ARGV[1]) then
+        return 0
+      end
+      redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+      return 1
+      """, Long.class);
+
+  /**
+   * Template holding the stored versions.
+   */
+  private final ReactiveStringRedisTemplate redisTemplate;
+
+  /**
+   * Latest known version per user id. Only users that changed within an access token lifetime are
+   * present; absence means every token version is still current.
+   */
+  private final Cache<UUID, Long> versions;
+
+  /**
+   * How long a version is kept, which is the lifetime of an access token.
+   */
+  private final Duration timeToLive;
+
+  /**
+   * Delay between two reloads of the stored versions.
+   */
+  private final Duration rebuildInterval;
+
+  /**
+   * How long the initial load may delay readiness.
+   */
+  private final Duration loadTimeout;
+
+  /**
+   * Subscription to the reload schedule.
+   */
+  private Disposable reloads;
+
+  /**
+   * Creates the registry.
+   *
+   * @param redisTemplate         the Redis template holding the stored versions
+   * @param accessTokenExpiration the access token lifetime in seconds
+   * @param rebuildInterval       the delay between two reloads of the stored versions
+   * @param loadTimeout           how long the initial load may delay readiness
+   */
+  public UserVersionRegistry(
+      final ReactiveStringRedisTemplate redisTemplate,
+      @Value("${application.security.jwt.expiration}") final long accessTokenExpiration,
+      @Value("${application.security.user-versions.rebuild-interval:5m}")
+      final Duration rebuildInterval,
+      @Value("${application.security.user-versions.load-timeout:30s}") final Duration loadTimeout) {
+    this.redisTemplate = redisTemplate;
+    this.timeToLive = Duration.ofSeconds(accessTokenExpiration);
+    this.rebuildInterval = rebuildInterval;
+    this.loadTimeout = loadTimeout;
+    this.versions = Caffeine.newBuilder()
+        .expireAfterWrite(timeToLive)
+        .build();
+  }
+
+  /**
+   * Loads the stored versions before the node reports itself ready, then schedules the reloads.
+   * A failed load is logged; the next reload retries it.
+   *
+   * @param args the application arguments
+   */
+  @Override
+  public void run(final ApplicationArguments args) {
+    try {
+      Long loaded = load().block(loadTimeout);
+      log.info("Loaded {} user versions", loaded);
+    } catch (RuntimeException e) {
+      log.warn("Failed to load user versions: {}", e.getMessage());
+    }
+    reloads = Flux.interval(rebuildInterval, rebuildInterval)
+        .concatMap(tick -> load()
+            .onErrorResume(e -> {
+              log.warn("Failed to reload user versions: {}", e.getMessage());
+              return Mono.empty();
+            }))
+        .subscribe();
+  }
+
+  /**
+   * Stops reloading the stored versions.
+   */
+  @PreDestroy
+  public void stop() {
+    if (reloads != null) {
+      reloads.dispose();
+    }
+  }
+
+  /**
+   * Records a user's current version on this node, ignoring versions older than the one already
+   * known.
+   *
+   * @param userId  the user's id
+   * @param version the user's current entity version
+   */
+  public void recordVersion(final UUID userId, final long version) {
+    versions.asMap().merge(userId, version, Math::max);
+  }
+
+  /**
+   * Stores a user's current version in Redis, so that nodes starting later also reject tokens of
+   * older versions.
+   *
+   * @param userId  the user's id
+   * @param version the user's current entity version
+   * @return a mono completing once the version is stored
+   */
+  public Mono<Void> storeVersion(final UUID userId, final long version) {
+    return redisTemplate.execute(RECORD_SCRIPT, List.of(versionKey(userId)),
+            List.of(String.valueOf(version), String.valueOf(timeToLive.toMillis())))
+        .then();
+  }
+
+  /**
+   * Checks whether a token issued against the given version is still current.
+   *
+   * @param userId       the user's id
+   * @param tokenVersion the version carried by the token
+   * @return true if no newer version of the user is known
+   */
+  public boolean isCurrent(final UUID userId, final long tokenVersion) {
+    Long current = versions.getIfPresent(userId);
+    return current == null || tokenVersion >= current;
+  }
+
+  /**
+   * Merges the versions stored in Redis into the known ones.
+   *
+   * @return a mono emitting the number of stored versions read
+   */
+  private Mono<Long> load() {
+    ScanOptions options = ScanOptions.scanOptions()
+        .match(VERSION_KEY_PREFIX + "*")
+        .count(SCAN_BATCH_SIZE)
+        .build();
+    return redisTemplate.scan(options)
+        .buffer(SCAN_BATCH_SIZE)
+        .concatMap(keys -> redisTemplate.opsForValue().multiGet(keys)
+            .flatMapMany(values -> {
+              for (int i = 0; i < keys.size(); i++) {
+                String value = values.get(i);
+                if (value != null) {
+                  recordVersion(UUID.fromString(
+                      keys.get(i).substring(VERSION_KEY_PREFIX.length())), Long.parseLong(value));
+                }
+              }
+              return Flux.fromIterable(keys);
+            }))
+        .count();
+  }
+
+  private static String versionKey(final UUID userId) {
+    return VERSION_KEY_PREFIX + userId;
+  }
+}
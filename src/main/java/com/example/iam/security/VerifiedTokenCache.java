@@ -0,0 +1,256 @@
+package com.example.iam.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.example.iam.domain.user.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.NonNull;
+
+/**
+ * Bounded cache of token verification outcomes, keyed by a digest of the compact token. Positive
+ * entries hold the authentication built for a valid token until the token expires; negative entries
+ * remember malformed, expired or badly signed tokens for a short time so that replayed garbage is
+ * rejected without any signature check.
+ */
+@Component
+public final class VerifiedTokenCache {
+
+  /**
+   * Name of the cache, used for metrics.
+   */
+  public static final String CACHE_NAME = "verifiedTokens";
+
+  /**
+   * Estimated heap footprint of a positive entry, including key, authentication and principal.
+   */
+  private static final int POSITIVE_ENTRY_BYTES = 1024;
+
+  /**
+   * Estimated heap footprint of a negative entry.
+   */
+  private static final int NEGATIVE_ENTRY_BYTES = 96;
+
+  /**
+   * Per-thread digest instances, avoiding a provider lookup per request.
+   */
+  private static final ThreadLocal<MessageDigest> DIGESTS = ThreadLocal.withInitial(() -> {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  });
+
+  /**
+   * Verification outcomes keyed by token digest.
+   */
+  private final Cache<Key, Entry> cache;
+
+  /**
+   * Registry of user versions, checked on every positive hit.
+   */
+  private final UserVersionRegistry userVersionRegistry;
+
+  /**
+   * Creates the cache.
+   *
+   * @param userVersionRegistry the registry of known user versions
+   * @param meterRegistry       the registry receiving the cache metrics
+   * @param maximumSize         the cap on the estimated heap used by cached entries
+   * @param negativeTimeToLive  how long an invalid token is remembered
+   */
+  public VerifiedTokenCache(
+      final UserVersionRegistry userVersionRegistry,
+      final MeterRegistry meterRegistry,
+      @Value("${application.security.token-cache.maximum-size:64MB}") final DataSize maximumSize,
+      @Value("${application.security.token-cache.negative-time-to-live:30s}")
+      final Duration negativeTimeToLive) {
+    this.userVersionRegistry = userVersionRegistry;
+    this.cache = Caffeine.newBuilder()
+        .maximumWeight(maximumSize.toBytes())
+        .weigher((Key key, Entry entry) -> entry.authentication() != null
+            ? POSITIVE_ENTRY_BYTES : NEGATIVE_ENTRY_BYTES)
+        .expireAfter(new EntryExpiry(negativeTimeToLive))
+        .recordStats()
+        .build();
+
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    Gauge.builder("cache.estimated.bytes", cache, c -> c.policy().eviction()
+            .map(eviction -> eviction.weightedSize().orElse(0L))
+            .orElse(0L))
+        .tag("cache", CACHE_NAME)
+        .baseUnit("bytes")
+        .description("Estimated heap used by cached token verifications")
+        .register(meterRegistry);
+    Gauge.builder("cache.max.bytes", maximumSize, DataSize::toBytes)
+        .tag("cache", CACHE_NAME)
+        .baseUnit("bytes")
+        .description("Cap on the heap used by cached token verifications")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Computes the cache key of a compact token.
+   *
+   * @param token the compact token
+   * @return the key
+   */
+  public Key keyOf(final String token) {
+    byte[] hash = DIGESTS.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+    ByteBuffer buffer = ByteBuffer.wrap(hash);
+    return new Key(buffer.getLong(), buffer.getLong());
+  }
+
+  /**
+   * Looks up a cached outcome. Positive entries whose user changed since issuance are dropped.
+   *
+   * @param key the token key
+   * @return the cached outcome, or null if the token must be verified
+   */
+  public Entry lookup(final Key key) {
+    Entry entry = cache.getIfPresent(key);
+    if (entry != null && entry.authentication() != null && entry.userId() != null
+        && !userVersionRegistry.isCurrent(entry.userId(), entry.version())) {
+      cache.invalidate(key);
+      return null;
+    }
+    return entry;
+  }
+
+  /**
+   * Remembers the authentication built for a valid token until the token expires.
+   *
+   * @param key            the token key
+   * @param authentication the authentication built for the token
+   * @param tokenId        the token id, or null if the token has none
+   * @param expiresAt      the token expiration
+   */
+  public void rememberValid(
+      final Key key,
+      final Authentication authentication,
+      final String tokenId,
+      final Instant expiresAt) {
+    if (expiresAt == null) {
+      return;
+    }
+    UUID userId = null;
+    long version = 0;
+    if (authentication.getPrincipal() instanceof TokenPrincipal principal) {
+      userId = principal.id();
+      version = principal.version();
+    } else if (authentication.getPrincipal() instanceof User user && user.getVersion() != null) {
+      userId = user.getId();
+      version = user.getVersion();
+    }
+    cache.put(key, new Entry(authentication, tokenId, expiresAt, userId, version));
+  }
+
+  /**
+   * Remembers that a token failed verification.
+   *
+   * @param key the token key
+   */
+  public void rememberInvalid(final Key key) {
+    cache.put(key, Entry.INVALID);
+  }
+
+  /**
+   * Cache key: the first 128 bits of the SHA-256 digest of the compact token.
+   *
+   * @param high the high 64 bits
+   * @param low  the low 64 bits
+   */
+  public record Key(long high, long low) {
+
+  }
+
+  /**
+   * Cached verification outcome.
+   *
+   * @param authentication the authentication of a valid token, or null for an invalid token
+   * @param tokenId        the token id, checked against revocations on every hit
+   * @param expiresAt      the token expiration, or null for an invalid token
+   * @param userId         the id of the authenticated user, if known
+   * @param version        the user version the authentication was built from
+   */
+  public record Entry(
+      Authentication authentication,
+      String tokenId,
+      Instant expiresAt,
+      UUID userId,
+      long version
+  ) {
+
+    /**
+     * Shared negative entry.
+     */
+    static final Entry INVALID = new Entry(null, null, null, null, 0);
+
+    /**
+     * Tells whether the token was found invalid.
+     *
+     * @return true for a negative entry
+     */
+    public boolean isInvalid() {
+      return authentication == null;
+    }
+  }
+
+  /**
+   * Expires positive entries at the token expiration and negative entries after a fixed delay.
+   */
+  private static final class EntryExpiry implements Expiry<Key, Entry> {
+
+    /**
+     * Lifetime of negative entries in nanoseconds.
+     */
+    private final long negativeNanos;
+
+    /**
+     * Creates the expiry policy.
+     *
+     * @param negativeTimeToLive lifetime of negative entries
+     */
+    EntryExpiry(final Duration negativeTimeToLive) {
+      this.negativeNanos = negativeTimeToLive.toNanos();
+    }
+
+    @Override
+    public long expireAfterCreate(final @NonNull Key key, final @NonNull Entry entry,
+        final long currentTime) {
+      if (entry.isInvalid()) {
+        return negativeNanos;
+      }
+      return Math.max(0, Duration.between(Instant.now(), entry.expiresAt()).toNanos());
+    }
+
+    @Override
+    public long expireAfterUpdate(final @NonNull Key key, final @NonNull Entry entry,
+        final long currentTime, final long currentDuration) {
+      return expireAfterCreate(key, entry, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(final @NonNull Key key, final @NonNull Entry entry,
+        final long currentTime, final long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
@@ -1,25 +1,41 @@
 package com.example.iam.service;
 
-import org.springframework.security.crypto.password.PasswordEncoder;
+import java.util.Set;
+
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import com.example.iam.domain.common.UuidV7Generator;
 import com.example.iam.domain.user.User;
 import com.example.iam.domain.user.UserRole;
 import com.example.iam.dto.AuthenticationRequest;
 import com.example.iam.dto.AuthenticationResponse;
+import com.example.iam.dto.RefreshTokenRequest;
 import com.example.iam.dto.RegisterRequest;
+import com.example.iam.dto.RevokeTokenRequest;
 import com.example.iam.exception.InvalidCredentialsException;
+import com.example.iam.exception.InvalidTokenException;
 import com.example.iam.exception.UserAlreadyExistsException;
 import com.example.iam.repository.UserRepository;
-import com.example.iam.repository.UserRoleRepository;
+import com.example.iam.security.AuthenticationMetrics;
+import com.example.iam.security.AuthenticationMetrics.Phase;
 import com.example.iam.security.JwtService;
+import com.example.iam.security.PasswordHashingService;
+import com.example.iam.security.RefreshTokenService;
+import com.example.iam.security.TokenClaims;
+import com.example.iam.security.TokenRevocationService;
 
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Mono;
 
 /**
  * Service class handling user authentication operations.
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public final class AuthenticationService {
@@ -30,71 +46,162 @@ public final class AuthenticationService {
   private final UserRepository userRepository;
 
   /**
-   * Repository for user role operations.
+   * Service for JWT operations.
    */
-  private final UserRoleRepository userRoleRepository;
+  private final JwtService jwtService;
 
   /**
-   * Service for JWT operations.
+   * Service hashing and verifying passwords off the event loop.
    */
-  private final JwtService jwtService;
+  private final PasswordHashingService passwordHashingService;
+
+  /**
+   * Service tracking refresh token families.
+   */
+  private final RefreshTokenService refreshTokenService;
 
   /**
-   * Encoder for password hashing.
+   * Service resolving the user of a refresh token through the user caches.
    */
-  private final PasswordEncoder passwordEncoder;
+  private final ReactiveUserDetailsService userDetailsService;
 
   /**
-   * Registers a new user.
+   * Denylist of revoked token ids.
+   */
+  private final TokenRevocationService tokenRevocationService;
+
+  /**
+   * Timers of the login phases.
+   */
+  private final AuthenticationMetrics authenticationMetrics;
+
+  /**
+   * Registers a new user. The request has already passed bean validation, so the password is only
+   * hashed, off the event loop, for well-formed requests. The user and its role are then inserted in
+   * a single statement whose email conflict check is atomic, which also settles concurrent
+   * sign-ups with the same email.
    *
    * @param request the registration request
    * @return a mono containing the authentication response
    */
   public Mono<AuthenticationResponse> register(final RegisterRequest request) {
-    return userRepository.findByEmail(request.email())
-        .hasElement()
-        .flatMap(exists -> exists
-            ? Mono.<AuthenticationResponse>error(
-            new UserAlreadyExistsException(request.email()))
-            : createUser(request));
+    return passwordHashingService.encode(request.password())
+        .flatMap(encodedPassword -> userRepository.insertIfAbsent(newUser(request, encodedPassword)))
+        .switchIfEmpty(Mono.error(() -> new UserAlreadyExistsException(request.email())))
+        .flatMap(this::issueTokens);
   }
 
   /**
-   * Authenticates a user.
+   * Authenticates a user. The user lookup and the password check are timed as separate phases;
+   * token signing is timed by the {@link JwtService}.
    *
    * @param request the authentication request
    * @return a mono containing the authentication response
    */
   public Mono<AuthenticationResponse> authenticate(final AuthenticationRequest request) {
-    return userRepository.findByEmail(request.email())
-        .filter(user -> passwordEncoder.matches(
-            request.password(), user.getPassword()))
-        .map(user -> {
-          String accessToken = jwtService.generateAccessToken(user);
-          String refreshToken = jwtService.generateRefreshToken(user);
-          return new AuthenticationResponse(accessToken, refreshToken);
-        })
-        .switchIfEmpty(Mono.error(new InvalidCredentialsException()));
+    return authenticationMetrics.time(Phase.USER_LOOKUP, userRepository.findByEmail(request.email()))
+        .filterWhen(user -> authenticationMetrics.time(Phase.PASSWORD_VERIFY,
+                passwordHashingService.matches(request.password(), user.getPassword())
+                    .filter(Boolean::booleanValue))
+            .hasElement())
+        .doOnNext(user -> upgradePasswordHash(user, request.password()))
+        .switchIfEmpty(Mono.error(new InvalidCredentialsException()))
+        .flatMap(this::issueTokens);
   }
 
-  private Mono<AuthenticationResponse> createUser(final RegisterRequest request) {
+  /**
+   * Exchanges a refresh token for a new token pair without checking the password. The presented
+   * token is rotated out of its family, so it cannot be used again.
+   *
+   * @param request the refresh request
+   * @return a mono containing the authentication response
+   */
+  public Mono<AuthenticationResponse> refresh(final RefreshTokenRequest request) {
+    TokenClaims claims;
+    try {
+      claims = jwtService.verifyToken(request.refreshToken());
+    } catch (JwtException | IllegalArgumentException e) {
+      return Mono.error(new InvalidTokenException());
+    }
+    if (!claims.isRefreshToken() || claims.subject() == null) {
+      return Mono.error(new InvalidTokenException());
+    }
+    return userDetailsService.findByUsername(claims.subject())
+        .onErrorMap(UsernameNotFoundException.class, e -> new InvalidTokenException())
+        .filter(user -> user.isEnabled() && user.isAccountNonLocked()
+            && user.isAccountNonExpired() && user.isCredentialsNonExpired())
+        .switchIfEmpty(Mono.error(new InvalidTokenException()))
+        .flatMap(user -> refreshTokenService.rotate(claims, user)
+            .map(refreshToken -> new AuthenticationResponse(
+                jwtService.generateAccessToken(user), refreshToken)));
+  }
+
+  /**
+   * Rehashes a verified password in the background when its stored hash uses an outdated algorithm
+   * or cost. Failures, including a saturated hashing executor, only postpone the upgrade to a later
+   * login.
+   *
+   * @param user        the authenticated user
+   * @param rawPassword the verified raw password
+   */
+  private void upgradePasswordHash(final User user, final String rawPassword) {
+    String storedPassword = user.getPassword();
+    if (!passwordHashingService.upgradeEncoding(storedPassword)) {
+      return;
+    }
+    passwordHashingService.encode(rawPassword)
+        .flatMap(newPassword -> userRepository.updatePassword(
+            user.getId(), storedPassword, newPassword))
+        .subscribe(
+            updated -> log.debug("Upgraded password hash of user {}", user.getId()),
+            e -> log.warn("Failed to upgrade password hash of user {}: {}", user.getId(),
+                e.getMessage()));
+  }
+
+  private static User newUser(final RegisterRequest request, final String encodedPassword) {
     User user = User.builder()
         .email(request.email())
-        .password(passwordEncoder.encode(request.password()))
+        .password(encodedPassword)
         .firstName(request.firstName())
         .lastName(request.lastName())
-        .role(UserRole.USER)
+        .roles(Set.of(UserRole.USER))
         .enabled(true)
         .accountNonExpired(true)
         .accountNonLocked(true)
         .credentialsNonExpired(true)
         .build();
+    user.setId(UuidV7Generator.generate());
+    return user;
+  }
+
+  /**
+   * Revokes a token until it expires. Revoking a refresh token also revokes its whole token family.
+   * Tokens that are invalid, expired or issued without an id are ignored.
+   *
+   * @param request the revocation request
+   * @return a mono completing once the token is revoked
+   */
+  public Mono<Void> revoke(final RevokeTokenRequest request) {
+    TokenClaims claims;
+    try {
+      claims = jwtService.verifyToken(request.token());
+    } catch (JwtException | IllegalArgumentException e) {
+      return Mono.empty();
+    }
+    if (claims.id() == null || claims.expiration() == null) {
+      return Mono.empty();
+    }
+    Mono<Void> revocation = tokenRevocationService.revoke(claims.id(), claims.expiration());
+    String familyId = claims.get(TokenClaims.FAMILY_ID, String.class);
+    if (claims.isRefreshToken() && familyId != null) {
+      revocation = revocation.then(refreshTokenService.revokeFamily(familyId));
+    }
+    return revocation;
+  }
 
-    return userRepository.save(user)
-        .map(savedUser -> {
-          String accessToken = jwtService.generateAccessToken(savedUser);
-          String refreshToken = jwtService.generateRefreshToken(savedUser);
-          return new AuthenticationResponse(accessToken, refreshToken);
-        });
+  private Mono<AuthenticationResponse> issueTokens(final UserDetails user) {
+    return refreshTokenService.issue(user)
+        .map(refreshToken -> new AuthenticationResponse(
+            jwtService.generateAccessToken(user), refreshToken));
   }
 }
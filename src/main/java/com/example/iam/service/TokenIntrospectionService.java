@@ -0,0 +1,252 @@
+package com.example.iam.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+import com.example.iam.cache.TwoTierUserDetailsService;
+import com.example.iam.dto.IntrospectionResponse;
+import com.example.iam.exception.ServiceOverloadedException;
+import com.example.iam.security.JwtService;
+import com.example.iam.security.TokenClaims;
+import com.example.iam.security.TokenPrincipal;
+import com.example.iam.security.TokenRevocationService;
+import com.example.iam.security.UserVersionRegistry;
+
+import io.jsonwebtoken.JwtException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service introspecting access tokens for API gateways. A batch is verified token by token, its
+ * probably revoked ids are checked together, and the principals it still needs are resolved with
+ * one grouped lookup. Refresh tokens are reported inactive, since they are not bearer credentials.
+ * Batches beyond a fixed number in flight are rejected rather than queued, so introspection cannot
+ * take over the node.
+ */
+@Service
+public final class TokenIntrospectionService {
+
+  /**
+   * Token type reported for active tokens.
+   */
+  private static final String BEARER = "Bearer";
+
+  /**
+   * Service for JWT operations.
+   */
+  private final JwtService jwtService;
+
+  /**
+   * Denylist of revoked token ids.
+   */
+  private final TokenRevocationService tokenRevocationService;
+
+  /**
+   * Registry of user versions used to reject tokens issued before an account change.
+   */
+  private final UserVersionRegistry userVersionRegistry;
+
+  /**
+   * Cached user details service resolving principals in bulk.
+   */
+  private final TwoTierUserDetailsService userDetailsService;
+
+  /**
+   * Permits of the batches being introspected.
+   */
+  private final Semaphore batchPermits;
+
+  /**
+   * Retry delay suggested to callers whose batch was rejected.
+   */
+  private final Duration retryAfter;
+
+  /**
+   * Creates the service.
+   *
+   * @param jwtService             the JWT service
+   * @param tokenRevocationService the denylist of revoked token ids
+   * @param userVersionRegistry    the registry of user versions
+   * @param userDetailsService     the cached user details service
+   * @param maxConcurrentBatches   the number of batches introspected at once
+   * @param retryAfter             the retry delay suggested when a batch is rejected
+   */
+  public TokenIntrospectionService(
+      final JwtService jwtService,
+      final TokenRevocationService tokenRevocationService,
+      final UserVersionRegistry userVersionRegistry,
+      final TwoTierUserDetailsService userDetailsService,
+      @Value("${application.security.introspection.max-concurrent-batches:16}")
+      final int maxConcurrentBatches,
+      @Value("${application.security.introspection.retry-after:1s}") final Duration retryAfter) {
+    this.jwtService = jwtService;
+    this.tokenRevocationService = tokenRevocationService;
+    this.userVersionRegistry = userVersionRegistry;
+    this.userDetailsService = userDetailsService;
+    this.batchPermits = new Semaphore(maxConcurrentBatches);
+    this.retryAfter = retryAfter;
+  }
+
+  /**
+   * Introspects a single token.
+   *
+   * @param token the token
+   * @return a mono emitting the introspection result
+   */
+  public Mono<IntrospectionResponse> introspect(final String token) {
+    return Mono.defer(() -> verifyAll(List.of(token)))
+        .map(results -> results.get(0));
+  }
+
+  /**
+   * Introspects several tokens.
+   *
+   * @param tokens the tokens
+   * @return a mono emitting one result per token, in the order of the tokens, or a
+   *         {@link ServiceOverloadedException} if too many batches are in flight
+   */
+  public Mono<List<IntrospectionResponse>> introspectAll(final List<String> tokens) {
+    return Mono.defer(() -> {
+      if (!batchPermits.tryAcquire()) {
+        return Mono.error(new ServiceOverloadedException(
+            "Batch introspection capacity exceeded", retryAfter));
+      }
+      return verifyAll(tokens)
+          .doFinally(signal -> batchPermits.release());
+    });
+  }
+
+  private Mono<List<IntrospectionResponse>> verifyAll(final List<String> tokens) {
+    List<TokenClaims> verified = new ArrayList<>(tokens.size());
+    for (String token : tokens) {
+      verified.add(verify(token));
+    }
+    return revokedIds(verified)
+        .flatMap(revoked -> {
+          List<TokenClaims> live = new ArrayList<>(verified.size());
+          for (TokenClaims claims : verified) {
+            boolean isRevoked = claims != null && claims.id() != null
+                && revoked.contains(claims.id());
+            live.add(isRevoked ? null : claims);
+          }
+          return resolve(live);
+        });
+  }
+
+  private TokenClaims verify(final String token) {
+    try {
+      TokenClaims claims = jwtService.verifyToken(token);
+      return claims.isRefreshToken() || claims.subject() == null ? null : claims;
+    } catch (JwtException | IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Checks the ids the revocation filter cannot rule out, all at once.
+   *
+   * @param verified the verified claims, with null for invalid tokens
+   * @return a mono emitting the revoked ids
+   */
+  private Mono<Set<String>> revokedIds(final List<TokenClaims> verified) {
+    List<String> suspects = verified.stream()
+        .filter(claims -> claims != null && tokenRevocationService.mightBeRevoked(claims.id()))
+        .map(TokenClaims::id)
+        .distinct()
+        .toList();
+    if (suspects.isEmpty()) {
+      return Mono.just(Set.of());
+    }
+    return Flux.fromIterable(suspects)
+        .flatMap(id -> tokenRevocationService.isRevoked(id)
+            .filter(Boolean::booleanValue)
+            .map(revoked -> id))
+        .collect(Collectors.toSet());
+  }
+
+  /**
+   * Builds the results, loading the users of tokens without principal claims in one lookup.
+   *
+   * @param live the claims of valid, unrevoked tokens, with null for the others
+   * @return a mono emitting the results in order
+   */
+  private Mono<List<IntrospectionResponse>> resolve(final List<TokenClaims> live) {
+    List<String> subjects = live.stream()
+        .filter(claims -> claims != null && statelessPrincipal(claims).isEmpty())
+        .map(TokenClaims::subject)
+        .distinct()
+        .toList();
+    return loadUsers(subjects)
+        .map(users -> {
+          List<IntrospectionResponse> results = new ArrayList<>(live.size());
+          for (TokenClaims claims : live) {
+            results.add(claims == null ? IntrospectionResponse.INACTIVE : result(claims, users));
+          }
+          return results;
+        });
+  }
+
+  private Mono<Map<String, UserDetails>> loadUsers(final Collection<String> subjects) {
+    if (subjects.isEmpty()) {
+      return Mono.just(Map.of());
+    }
+    return userDetailsService.findAllByUsername(subjects)
+        .collectMap(UserDetails::getUsername, Function.identity());
+  }
+
+  private IntrospectionResponse result(
+      final TokenClaims claims,
+      final Map<String, UserDetails> users) {
+    Optional<TokenPrincipal> principal = statelessPrincipal(claims);
+    if (principal.isPresent()) {
+      boolean active = claims.isAccountActive() && userVersionRegistry.isCurrent(
+          principal.get().id(), principal.get().version());
+      return active ? active(claims, principal.get().authorities())
+          : IntrospectionResponse.INACTIVE;
+    }
+    UserDetails user = users.get(claims.subject());
+    if (user == null || !jwtService.isTokenValid(claims, user) || !user.isEnabled()
+        || !user.isAccountNonLocked() || !user.isAccountNonExpired()
+        || !user.isCredentialsNonExpired()) {
+      return IntrospectionResponse.INACTIVE;
+    }
+    return active(claims, user.getAuthorities());
+  }
+
+  private Optional<TokenPrincipal> statelessPrincipal(final TokenClaims claims) {
+    return jwtService.isStatelessPrincipal() ? jwtService.extractPrincipal(claims)
+        : Optional.empty();
+  }
+
+  private static IntrospectionResponse active(
+      final TokenClaims claims,
+      final Collection<? extends GrantedAuthority> authorities) {
+    return new IntrospectionResponse(
+        true,
+        BEARER,
+        claims.id(),
+        claims.subject(),
+        epochSeconds(claims.issuedAt()),
+        epochSeconds(claims.expiration()),
+        List.copyOf(AuthorityUtils.authorityListToSet(authorities)));
+  }
+
+  private static Long epochSeconds(final Instant instant) {
+    return instant != null ? instant.getEpochSecond() : null;
+  }
+}
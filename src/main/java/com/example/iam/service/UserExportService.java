@@ -0,0 +1,66 @@
+package com.example.iam.service;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.iam.dto.UserSummary;
+import com.example.iam.repository.UserRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service streaming all users for exports. Users are read in id order, one bounded chunk at a
+ * time, and the next chunk is only queried once the client has consumed the previous one. Heap use
+ * is therefore bounded by the chunk size, and no query outlives its chunk.
+ */
+@Service
+public final class UserExportService {
+
+  /**
+   * Repository reading the users.
+   */
+  private final UserRepository userRepository;
+
+  /**
+   * Number of users read per query.
+   */
+  private final int chunkSize;
+
+  /**
+   * Creates the service.
+   *
+   * @param userRepository the user repository
+   * @param chunkSize      the number of users read per query
+   */
+  public UserExportService(
+      final UserRepository userRepository,
+      @Value("${application.users.export.chunk-size:1000}") final int chunkSize) {
+    this.userRepository = userRepository;
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Streams all users, following the demand of the subscriber.
+   *
+   * @param includeDeleted whether soft-deleted users are included
+   * @return a flux emitting the users in id order
+   */
+  public Flux<UserSummary> exportUsers(final boolean includeDeleted) {
+    return chunkAfter(null, includeDeleted)
+        .expand(chunk -> chunk.size() < chunkSize ? Mono.empty()
+            : chunkAfter(chunk.get(chunk.size() - 1).id(), includeDeleted))
+        .concatMapIterable(Function.identity(), 1);
+  }
+
+  private Mono<List<UserSummary>> chunkAfter(
+      final UUID after,
+      final boolean includeDeleted) {
+    return userRepository.findExportChunk(after, includeDeleted, chunkSize)
+        .collectList();
+  }
+}
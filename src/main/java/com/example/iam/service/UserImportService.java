@@ -0,0 +1,477 @@
+package com.example.iam.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ServerWebInputException;
+
+import com.example.iam.domain.common.UuidV7Generator;
+import com.example.iam.domain.user.User;
+import com.example.iam.domain.user.UserRole;
+import com.example.iam.dto.UserImportFailure;
+import com.example.iam.dto.UserImportRecord;
+import com.example.iam.dto.UserImportResponse;
+import com.example.iam.exception.ServiceOverloadedException;
+import com.example.iam.repository.UserRepository;
+import com.example.iam.security.PasswordEncoders;
+import com.example.iam.security.PasswordHashingService;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * Service creating users in bulk from a streamed request body. Rows are validated one by one, raw
+ * passwords are hashed a few at a time on the shared hashing pool, and valid users are written in
+ * large batches with PostgreSQL's {@code COPY}. The body is only read as fast as batches are
+ * written. Invalid rows and taken emails are reported without failing the rest of the import.
+ */
+@Slf4j
+@Service
+public final class UserImportService {
+
+  /**
+   * CSV column holding the email.
+   */
+  private static final String EMAIL_COLUMN = "email";
+
+  /**
+   * CSV column holding the first name.
+   */
+  private static final String FIRST_NAME_COLUMN = "first_name";
+
+  /**
+   * CSV column holding the last name.
+   */
+  private static final String LAST_NAME_COLUMN = "last_name";
+
+  /**
+   * CSV column holding the raw password.
+   */
+  private static final String PASSWORD_COLUMN = "password";
+
+  /**
+   * CSV column holding the password hash.
+   */
+  private static final String PASSWORD_HASH_COLUMN = "password_hash";
+
+  /**
+   * CSV column holding the role.
+   */
+  private static final String ROLE_COLUMN = "role";
+
+  /**
+   * Columns every CSV header must name.
+   */
+  private static final List<String> REQUIRED_CSV_COLUMNS =
+      List.of(EMAIL_COLUMN, FIRST_NAME_COLUMN, LAST_NAME_COLUMN);
+
+  /**
+   * Number of times a hash rejected by a saturated hashing pool is retried.
+   */
+  private static final int MAX_HASHING_RETRIES = 5;
+
+  /**
+   * First delay before retrying a hash rejected by a saturated hashing pool.
+   */
+  private static final Duration HASHING_RETRY_BACKOFF = Duration.ofMillis(100);
+
+  /**
+   * Repository writing the users.
+   */
+  private final UserRepository userRepository;
+
+  /**
+   * Service hashing raw passwords off the event loop.
+   */
+  private final PasswordHashingService passwordHashingService;
+
+  /**
+   * Validator checking each row.
+   */
+  private final Validator validator;
+
+  /**
+   * Number of users written per batch.
+   */
+  private final int batchSize;
+
+  /**
+   * Number of raw passwords hashed at once.
+   */
+  private final int hashingConcurrency;
+
+  /**
+   * Number of failures listed in a response.
+   */
+  private final int maxReportedFailures;
+
+  /**
+   * Creates the service.
+   *
+   * @param userRepository         the user repository
+   * @param passwordHashingService the password hashing service
+   * @param validator              the bean validator
+   * @param batchSize              the number of users written per batch
+   * @param hashingConcurrency     the number of raw passwords hashed at once
+   * @param maxReportedFailures    the number of failures listed in a response
+   */
+  public UserImportService(
+      final UserRepository userRepository,
+      final PasswordHashingService passwordHashingService,
+      final Validator validator,
+      @Value("${application.users.import.batch-size:5000}") final int batchSize,
+      @Value("${application.users.import.hashing-concurrency:4}") final int hashingConcurrency,
+      @Value("${application.users.import.max-reported-failures:1000}")
+      final int maxReportedFailures) {
+    this.userRepository = userRepository;
+    this.passwordHashingService = passwordHashingService;
+    this.validator = validator;
+    this.batchSize = batchSize;
+    this.hashingConcurrency = hashingConcurrency;
+    this.maxReportedFailures = maxReportedFailures;
+  }
+
+  /**
+   * Imports users read from a stream of records, such as an NDJSON body.
+   *
+   * @param records the records, the first being on line 1
+   * @return a mono emitting the import outcome once every record is processed
+   */
+  public Mono<UserImportResponse> importUsers(final Flux<UserImportRecord> records) {
+    return importRows(records.index((index, record) -> ImportRow.of(index + 1, record)));
+  }
+
+  /**
+   * Imports users read from CSV lines. The first line is a header naming the columns {@code
+   * email}, {@code first_name}, {@code last_name} and optionally {@code password}, {@code
+   * password_hash} and {@code role}. Blank lines are skipped.
+   *
+   * @param lines the CSV lines, without line terminators
+   * @return a mono emitting the import outcome once every line is processed, or a {@link
+   *         ServerWebInputException} if the header lacks a required column
+   */
+  public Mono<UserImportResponse> importCsv(final Flux<String> lines) {
+    return importRows(lines.index().switchOnFirst((first, all) -> {
+      if (!first.hasValue()) {
+        return all.thenMany(Flux.<ImportRow>empty());
+      }
+      Map<String, Integer> columns = csvColumns(first.get().getT2());
+      List<String> missing = REQUIRED_CSV_COLUMNS.stream()
+          .filter(column -> !columns.containsKey(column))
+          .toList();
+      if (!missing.isEmpty()) {
+        return Flux.error(new ServerWebInputException("CSV header lacks columns " + missing));
+      }
+      return all.skip(1)
+          .filter(line -> !line.getT2().isBlank())
+          .map(line -> csvRow(line.getT1() + 1, line.getT2(), columns));
+    }));
+  }
+
+  private Mono<UserImportResponse> importRows(final Flux<ImportRow> rows) {
+    return rows
+        .flatMapSequential(this::prepare, hashingConcurrency)
+        .buffer(batchSize)
+        .concatMap(this::write)
+        .reduceWith(() -> new ImportSummary(maxReportedFailures), ImportSummary::add)
+        .map(ImportSummary::toResponse);
+  }
+
+  /**
+   * Validates a row and resolves its password hash, hashing a raw password if needed.
+   *
+   * @param row the row
+   * @return a mono emitting the row with its user, or with the reason it cannot be imported
+   */
+  private Mono<ImportRow> prepare(final ImportRow row) {
+    if (row.error() != null) {
+      return Mono.just(row);
+    }
+    UserImportRecord record = row.record();
+    String violation = validator.validate(record).stream()
+        .map(ConstraintViolation::getMessage)
+        .sorted()
+        .findFirst()
+        .orElse(null);
+    if (violation != null) {
+      return Mono.just(row.rejected(violation));
+    }
+    Set<UserRole> roles = roles(record.role());
+    if (roles == null) {
+      return Mono.just(row.rejected("Unknown role: " + record.role()));
+    }
+    if ((record.password() == null) == (record.passwordHash() == null)) {
+      return Mono.just(row.rejected("Exactly one of password and password hash is required"));
+    }
+    if (record.passwordHash() != null) {
+      return PasswordEncoders.isSupportedHash(record.passwordHash())
+          ? Mono.just(row.prepared(newUser(record, record.passwordHash(), roles)))
+          : Mono.just(row.rejected("Unsupported password hash format"));
+    }
+    return passwordHashingService.encode(record.password())
+        .retryWhen(Retry.backoff(MAX_HASHING_RETRIES, HASHING_RETRY_BACKOFF)
+            .filter(ServiceOverloadedException.class::isInstance))
+        .map(encodedPassword -> row.prepared(newUser(record, encodedPassword, roles)))
+        .onErrorResume(e -> {
+          log.warn("Failed to hash the password of import line {}: {}", row.line(),
+              e.getMessage());
+          return Mono.just(row.rejected("Password could not be hashed"));
+        });
+  }
+
+  /**
+   * Writes the valid users of a batch. If the batch cannot be written, all its users are reported
+   * as failed and the import goes on with the next batch.
+   *
+   * @param batch the rows of the batch, in request order
+   * @return a mono emitting the outcome of the batch
+   */
+  private Mono<BatchOutcome> write(final List<ImportRow> batch) {
+    List<User> users = batch.stream()
+        .filter(row -> row.user() != null)
+        .map(ImportRow::user)
+        .toList();
+    if (users.isEmpty()) {
+      return Mono.just(outcome(batch, Set.of(), null));
+    }
+    return userRepository.insertAllIfAbsent(users)
+        .collect(Collectors.toSet())
+        .map(rejected -> outcome(batch, rejected, null))
+        .onErrorResume(e -> {
+          log.error("Failed to write an import batch of {} users", users.size(), e);
+          return Mono.just(outcome(batch, Set.of(), "User could not be written"));
+        });
+  }
+
+  private static BatchOutcome outcome(
+      final List<ImportRow> batch,
+      final Set<UUID> rejected,
+      final String batchError) {
+    long imported = 0;
+    List<UserImportFailure> failures = new ArrayList<>();
+    for (ImportRow row : batch) {
+      String error = row.error();
+      if (error == null && batchError != null) {
+        error = batchError;
+      } else if (error == null && rejected.contains(row.user().getId())) {
+        error = "Email already exists";
+      }
+      if (error == null) {
+        imported++;
+      } else {
+        String email = row.record() != null ? row.record().email() : null;
+        failures.add(new UserImportFailure(row.line(), email, error));
+      }
+    }
+    return new BatchOutcome(imported, failures);
+  }
+
+  /**
+   * Parses the roles of an import record, separated by {@code |}.
+   *
+   * @param role the role field, or null
+   * @return the roles, {@code USER} if the field is blank, or null if a role is unknown
+   */
+  private static Set<UserRole> roles(final String role) {
+    if (role == null || role.isBlank()) {
+      return Set.of(UserRole.USER);
+    }
+    Set<UserRole> roles = EnumSet.noneOf(UserRole.class);
+    for (String name : role.split("\\|")) {
+      try {
+        roles.add(UserRole.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+      } catch (IllegalArgumentException e) {
+        return null;
+      }
+    }
+    return roles;
+  }
+
+  private static User newUser(
+      final UserImportRecord record,
+      final String encodedPassword,
+      final Set<UserRole> roles) {
+    User user = User.builder()
+        .email(record.email())
+        .password(encodedPassword)
+        .firstName(record.firstName())
+        .lastName(record.lastName())
+        .roles(roles)
+        .enabled(true)
+        .accountNonExpired(true)
+        .accountNonLocked(true)
+        .credentialsNonExpired(true)
+        .build();
+    user.setId(UuidV7Generator.generate());
+    return user;
+  }
+
+  private static Map<String, Integer> csvColumns(final String header) {
+    List<String> names = csvFields(header);
+    Map<String, Integer> columns = new HashMap<>();
+    for (int i = 0; i < names.size(); i++) {
+      columns.putIfAbsent(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+    }
+    return columns;
+  }
+
+  private static ImportRow csvRow(
+      final long line,
+      final String text,
+      final Map<String, Integer> columns) {
+    List<String> fields = csvFields(text);
+    if (fields.size() < columns.size()) {
+      return ImportRow.failed(line, "Expected " + columns.size() + " fields but found "
+          + fields.size());
+    }
+    return ImportRow.of(line, new UserImportRecord(
+        csvValue(fields, columns, EMAIL_COLUMN),
+        csvValue(fields, columns, FIRST_NAME_COLUMN),
+        csvValue(fields, columns, LAST_NAME_COLUMN),
+        csvValue(fields, columns, PASSWORD_COLUMN),
+        csvValue(fields, columns, PASSWORD_HASH_COLUMN),
+        csvValue(fields, columns, ROLE_COLUMN)));
+  }
+
+  private static String csvValue(
+      final List<String> fields,
+      final Map<String, Integer> columns,
+      final String column) {
+    Integer index = columns.get(column);
+    if (index == null || fields.get(index).isEmpty()) {
+      return null;
+    }
+    return fields.get(index);
+  }
+
+  /**
+   * Splits a CSV line into its fields. Fields may be quoted, with doubled quotes standing for a
+   * quote inside a quoted field.
+   *
+   * @param line the line
+   * @return the fields
+   */
+  private static List<String> csvFields(final String line) {
+    List<String> fields = new ArrayList<>();
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (quoted) {
+        if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+          field.append('"');
+          i++;
+        } else if (c == '"') {
+          quoted = false;
+        } else {
+          field.append(c);
+        }
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else {
+        field.append(c);
+      }
+    }
+    fields.add(field.toString());
+    return fields;
+  }
+
+  /**
+   * One row of an import on its way to the database.
+   *
+   * @param line   the line of the row, starting at 1
+   * @param record the record read from the line, or null if it could not be read
+   * @param user   the user to insert, once the row is validated and its password hashed
+   * @param error  why the row cannot be imported, or null
+   */
+  private record ImportRow(long line, UserImportRecord record, User user, String error) {
+
+    static ImportRow of(final long line, final UserImportRecord record) {
+      return new ImportRow(line, record, null, null);
+    }
+
+    static ImportRow failed(final long line, final String error) {
+      return new ImportRow(line, null, null, error);
+    }
+
+    ImportRow prepared(final User preparedUser) {
+      return new ImportRow(line, record, preparedUser, null);
+    }
+
+    ImportRow rejected(final String reason) {
+      return new ImportRow(line, record, null, reason);
+    }
+  }
+
+  /**
+   * Outcome of one written batch.
+   *
+   * @param imported the number of users created
+   * @param failures the rows of the batch that were not imported, in request order
+   */
+  private record BatchOutcome(long imported, List<UserImportFailure> failures) {
+  }
+
+  /**
+   * Running totals of an import, keeping only the first failures.
+   */
+  private static final class ImportSummary {
+
+    /**
+     * Number of failures kept for the response.
+     */
+    private final int maxReportedFailures;
+
+    /**
+     * The first failures.
+     */
+    private final List<UserImportFailure> failures = new ArrayList<>();
+
+    /**
+     * Number of users created so far.
+     */
+    private long imported;
+
+    /**
+     * Number of failures so far.
+     */
+    private long failed;
+
+    ImportSummary(final int maxReportedFailures) {
+      this.maxReportedFailures = maxReportedFailures;
+    }
+
+    ImportSummary add(final BatchOutcome outcome) {
+      imported += outcome.imported();
+      failed += outcome.failures().size();
+      for (UserImportFailure failure : outcome.failures()) {
+        if (failures.size() >= maxReportedFailures) {
+          break;
+        }
+        failures.add(failure);
+      }
+      return this;
+    }
+
+    UserImportResponse toResponse() {
+      return new UserImportResponse(imported, failed, List.copyOf(failures));
+    }
+  }
+}
@@ -0,0 +1,106 @@
+package com.example.iam.service;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ServerWebInputException;
+
+import com.example.iam.domain.user.UserRole;
+import com.example.iam.dto.UserPageResponse;
+import com.example.iam.dto.UserSummary;
+import com.example.iam.repository.UserRepository;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service listing users page by page, newest first. Each page ends with an opaque cursor encoding
+ * the {@code (date_created, id)} of its last user, from which the next page continues, so deep
+ * pages cost no more than the first.
+ */
+@Service
+@RequiredArgsConstructor
+public final class UserListingService {
+
+  /**
+   * Largest page size.
+   */
+  public static final int MAX_PAGE_SIZE = 200;
+
+  /**
+   * Size in bytes of a decoded cursor: epoch seconds, nanoseconds and the two halves of the id.
+   */
+  private static final int CURSOR_BYTES = Long.BYTES + Integer.BYTES + 2 * Long.BYTES;
+
+  /**
+   * Encoder of cursors.
+   */
+  private static final Base64.Encoder CURSOR_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+  /**
+   * Decoder of cursors.
+   */
+  private static final Base64.Decoder CURSOR_DECODER = Base64.getUrlDecoder();
+
+  /**
+   * Repository reading the users.
+   */
+  private final UserRepository userRepository;
+
+  /**
+   * Lists one page of users.
+   *
+   * @param cursor  the cursor returned with the previous page, or null for the first page
+   * @param size    the page size, clamped to between 1 and {@value #MAX_PAGE_SIZE}
+   * @param deleted whether soft-deleted or live users are listed
+   * @param enabled the enabled flag users must have, or null for any
+   * @param role    the role users must have, or null for any
+   * @return a mono emitting the page, or a {@link ServerWebInputException} for a malformed cursor
+   */
+  public Mono<UserPageResponse> listUsers(
+      final String cursor,
+      final int size,
+      final boolean deleted,
+      final Boolean enabled,
+      final UserRole role) {
+    int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    Instant beforeCreated = null;
+    UUID beforeId = null;
+    if (cursor != null && !cursor.isEmpty()) {
+      ByteBuffer decoded = decode(cursor);
+      if (decoded == null) {
+        return Mono.error(new ServerWebInputException("Invalid cursor"));
+      }
+      beforeCreated = Instant.ofEpochSecond(decoded.getLong(), decoded.getInt());
+      beforeId = new UUID(decoded.getLong(), decoded.getLong());
+    }
+    // One extra user tells whether a next page exists.
+    return userRepository.findPage(deleted, enabled, role, beforeCreated, beforeId, limit + 1)
+        .collectList()
+        .map(users -> users.size() > limit
+            ? new UserPageResponse(List.copyOf(users.subList(0, limit)), encode(users.get(limit - 1)))
+            : new UserPageResponse(users, null));
+  }
+
+  private static String encode(final UserSummary last) {
+    ByteBuffer cursor = ByteBuffer.allocate(CURSOR_BYTES)
+        .putLong(last.dateCreated().getEpochSecond())
+        .putInt(last.dateCreated().getNano())
+        .putLong(last.id().getMostSignificantBits())
+        .putLong(last.id().getLeastSignificantBits());
+    return CURSOR_ENCODER.encodeToString(cursor.array());
+  }
+
+  private static ByteBuffer decode(final String cursor) {
+    try {
+      byte[] bytes = CURSOR_DECODER.decode(cursor);
+      return bytes.length == CURSOR_BYTES ? ByteBuffer.wrap(bytes) : null;
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,6 @@
+-- Keyset pagination of the user listing: equality on deleted, then (date_created, id) in the
+-- listing order. The listed columns are included so pages can be served by index-only scans.
+CREATE INDEX IF NOT EXISTS idx_users_listing
+    ON users (deleted, date_created DESC, id DESC)
+    INCLUDE (email, first_name, last_name, enabled, account_non_expired, account_non_locked,
+             credentials_non_expired, last_updated);
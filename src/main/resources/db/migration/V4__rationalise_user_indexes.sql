@@ -0,0 +1,18 @@
+-- Emails only need to be unique among live users; soft-deleted users keep theirs without blocking
+-- a new sign-up. The partial index replaces the UNIQUE constraint and idx_users_email on top of it.
+CREATE UNIQUE INDEX IF NOT EXISTS uq_users_email_live ON users (email) WHERE NOT deleted;
+ALTER TABLE users DROP CONSTRAINT IF EXISTS users_email_key;
+DROP INDEX IF EXISTS idx_users_email;
+
+-- Superseded by uq_users_email_live, since every email lookup filters on NOT deleted.
+DROP INDEX IF EXISTS idx_users_email_deleted;
+-- Too unselective to be used on its own; idx_users_listing leads with deleted where it matters.
+DROP INDEX IF EXISTS idx_users_deleted;
+
+-- No query filters or sorts on the audit columns except date_created, which idx_users_listing
+-- covers. Dropping the last_updated index alone does not make updates HOT, since idx_users_listing
+-- still includes the column; V5 narrows that index.
+DROP INDEX IF EXISTS idx_users_date_created;
+DROP INDEX IF EXISTS idx_users_last_updated;
+DROP INDEX IF EXISTS idx_users_created_by;
+DROP INDEX IF EXISTS idx_users_last_modified_by;
@@ -0,0 +1,6 @@
+-- idx_users_listing included last_updated and the account flags, which account changes write, so
+-- no update of users could be HOT and every one rewrote the listing index as well. Pages hold a
+-- few dozen rows, so the keyset order is all the listing needs from the index; the listed columns
+-- are read from the heap.
+CREATE INDEX IF NOT EXISTS idx_users_listing_keyset ON users (deleted, date_created DESC, id DESC);
+DROP INDEX IF EXISTS idx_users_listing;
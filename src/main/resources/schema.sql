@@ -8,7 +8,7 @@ CREATE TABLE IF NOT EXISTS users
     VARCHAR
 (
     255
-) NOT NULL UNIQUE,
+) NOT NULL,
     password VARCHAR
 (
     255
@@ -58,20 +58,35 @@ CREATE TABLE IF NOT EXISTS user_roles
 )
     );
 
--- Index for email column (though UNIQUE constraint already creates an index)
-CREATE INDEX IF NOT EXISTS idx_users_email ON users(email);
+-- Emails are unique among live users only (see db/migration/V4__rationalise_user_indexes.sql)
+CREATE UNIQUE INDEX IF NOT EXISTS uq_users_email_live ON users(email) WHERE NOT deleted;
 
--- Index for soft delete flag as it's commonly used in queries
-CREATE INDEX IF NOT EXISTS idx_users_deleted ON users(deleted);
+-- Databases created before V4 still carry the full UNIQUE constraint, which makes registering the
+-- email of a soft-deleted user fail instead of being arbitrated by uq_users_email_live. Migrations
+-- are not run, so the indexes V4 retires are dropped here on every start; on an up to date schema
+-- these statements do nothing. ALTER TABLE locks users even when the constraint is gone, which
+-- would stall logins behind running queries on every deploy, so it only runs when the constraint
+-- exists; DROP INDEX IF EXISTS takes no lock when the index is missing. The block is single-quoted
+-- because the script splitter does not understand dollar quoting.
+DO '
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_constraint
+               WHERE conname = ''users_email_key'' AND conrelid = ''users''::regclass) THEN
+        ALTER TABLE users DROP CONSTRAINT users_email_key;
+    END IF;
+END';
+DROP INDEX IF EXISTS idx_users_email;
+DROP INDEX IF EXISTS idx_users_email_deleted;
+DROP INDEX IF EXISTS idx_users_deleted;
+DROP INDEX IF EXISTS idx_users_date_created;
+DROP INDEX IF EXISTS idx_users_last_updated;
+DROP INDEX IF EXISTS idx_users_created_by;
+DROP INDEX IF EXISTS idx_users_last_modified_by;
 
 -- Index for user roles for faster role lookups
 CREATE INDEX IF NOT EXISTS idx_user_roles_role ON user_roles(role);
 
--- Composite index for common queries that might filter by multiple columns
-CREATE INDEX IF NOT EXISTS idx_users_email_deleted ON users(email, deleted);
-
--- Index for audit fields that might be used in queries
-CREATE INDEX IF NOT EXISTS idx_users_date_created ON users(date_created);
-CREATE INDEX IF NOT EXISTS idx_users_last_updated ON users(last_updated);
-CREATE INDEX IF NOT EXISTS idx_users_created_by ON users(created_by);
-CREATE INDEX IF NOT EXISTS idx_users_last_modified_by ON users(last_modified_by); 
\ No newline at end of file
+-- Keyset order of the paginated user listing. It includes no column that updates write, so they
+-- stay HOT (see db/migration/V5__narrow_user_listing_index.sql, which retires the covering index).
+CREATE INDEX IF NOT EXISTS idx_users_listing_keyset ON users (deleted, date_created DESC, id DESC);
+DROP INDEX IF EXISTS idx_users_listing;